@@ -0,0 +1,80 @@
+package carbon.benchmark;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertNull;
+
+/**
+ * Base class of benchmarks which need Android classes. Each benchmark is a test running an
+ * operation in rounds after a warmup. The reported time is the median of rounds, allocations are
+ * counted with the JVM's per thread allocation counter. Both include the overhead of Robolectric's
+ * shadows, so the results are comparable only with results of the same setup.
+ */
+@RunWith(RobolectricTestRunner.class)
+public abstract class AndroidBenchmark {
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 15;
+
+    protected Context getContext() {
+        return new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), carbon.R.style.carbon_Theme_Light);
+    }
+
+    /**
+     * Measures the operation and fails if it regressed compared to the baseline.
+     *
+     * @param name       name of the benchmark, unique in this class
+     * @param operations number of operations run in each round
+     * @param operation  gets the index of the operation in the round
+     */
+    protected void benchmark(String name, int operations, Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++)
+            run(operations, operation);
+
+        long[] times = new long[ROUNDS];
+        long allocatedBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long bytes = getAllocatedBytes();
+            long start = System.nanoTime();
+            run(operations, operation);
+            times[i] = System.nanoTime() - start;
+            allocatedBytes += getAllocatedBytes() - bytes;
+        }
+        Arrays.sort(times);
+
+        Score score = new Score((double) times[ROUNDS / 2] / operations,
+                getAllocatedBytes() >= 0 ? (double) allocatedBytes / ROUNDS / operations : Double.NaN);
+        assertNull(Baseline.report(getClass().getSimpleName() + "." + name, score));
+    }
+
+    private static void run(int operations, Operation operation) {
+        for (int i = 0; i < operations; i++)
+            operation.run(i);
+    }
+
+    /**
+     * @return number of bytes allocated by the current thread or -1 if not supported by the JVM
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled())
+            return -1;
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public interface Operation {
+        void run(int i);
+    }
+}
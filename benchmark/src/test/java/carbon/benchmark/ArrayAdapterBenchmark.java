@@ -0,0 +1,64 @@
+package carbon.benchmark;
+
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import carbon.recycler.ArrayAdapter;
+import carbon.view.SelectionMode;
+
+/**
+ * Replacing items with a diff and selecting items of an adapter with a multi selection.
+ */
+public class ArrayAdapterBenchmark extends AndroidBenchmark {
+    private static final int ITEM_COUNT = 1000;
+
+    private static class StringAdapter extends ArrayAdapter<RecyclerView.ViewHolder, String> {
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private StringAdapter adapter;
+    private String[] items, changedItems;
+
+    @Before
+    public void setUp() {
+        items = Words.items(ITEM_COUNT, 2);
+        // a few items removed, moved and inserted
+        changedItems = Arrays.copyOf(items, ITEM_COUNT);
+        for (int i = 0; i < 10; i++) {
+            String item = changedItems[i * 90];
+            changedItems[i * 90] = changedItems[i * 90 + 45];
+            changedItems[i * 90 + 45] = item;
+            changedItems[i * 90 + 10] = "inserted " + i;
+        }
+
+        adapter = new StringAdapter();
+        adapter.setSelectionMode(SelectionMode.MULTI);
+        adapter.setItems(items);
+        for (int i = 0; i < ITEM_COUNT; i += 20)
+            adapter.selectItem(items[i]);
+    }
+
+    @Test
+    public void setItems() throws Exception {
+        benchmark("setItems", 10, i -> adapter.setItems(i % 2 == 0 ? changedItems : items));
+    }
+
+    @Test
+    public void selectItem() throws Exception {
+        benchmark("selectItem", 1000, i -> adapter.selectItem(items[i * 7 % ITEM_COUNT]));
+    }
+
+    @Test
+    public void getSelectedItems() throws Exception {
+        benchmark("getSelectedItems", 1000, i -> adapter.getSelectedItems());
+    }
+}
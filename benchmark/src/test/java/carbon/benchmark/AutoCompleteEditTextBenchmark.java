@@ -0,0 +1,31 @@
+package carbon.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import carbon.widget.AutoCompleteEditText;
+
+/**
+ * Finding and applying completions of the word at the cursor on the calling thread.
+ */
+public class AutoCompleteEditTextBenchmark extends AndroidBenchmark {
+    private static final String[] TEXTS = {"ber", "lorem ol", "ka", "tas", "mo"};
+
+    private AutoCompleteEditText autoCompleteEditText;
+
+    @Before
+    public void setUp() {
+        autoCompleteEditText = new AutoCompleteEditText(getContext());
+        autoCompleteEditText.setSearchExecutor(null);
+        autoCompleteEditText.setDataProvider(new StringSearchAdapter(Words.items(2000, 3)));
+    }
+
+    @Test
+    public void complete() throws Exception {
+        benchmark("complete", 100, i -> {
+            String text = TEXTS[i % TEXTS.length];
+            autoCompleteEditText.setText(text);
+            autoCompleteEditText.setSelection(text.length());
+        });
+    }
+}
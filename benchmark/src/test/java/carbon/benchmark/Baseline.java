@@ -0,0 +1,113 @@
+package carbon.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares benchmark results with the checked-in baseline.json and collects them in
+ * build/benchmark/results.json, which becomes the new baseline when recorded. Both files map
+ * benchmark names to {"nsPerOp": ..., "allocatedBytesPerOp": ...}, values which weren't measured
+ * are null. Results are written right away, because benchmarks running in different Robolectric
+ * sandboxes don't share static state.
+ * <p>
+ * A result is a regression if it's slower than the baseline by more than {@link #TIME_TOLERANCE}
+ * or allocates more by more than {@link #ALLOCATION_TOLERANCE}. Regressions fail the run unless
+ * the carbon.benchmark.check system property is false, which is the case when recording a new
+ * baseline. Benchmarks without a recorded baseline fail as well, so the baseline can't silently
+ * stop covering them.
+ */
+public final class Baseline {
+    public static final double TIME_TOLERANCE = 0.25;
+    public static final double ALLOCATION_TOLERANCE = 0.1;
+    // allocation counts include a few objects made by the measurement itself
+    private static final double ALLOCATION_SLACK = 32;
+
+    private static final File BASELINE_FILE = new File("baseline.json");
+    private static final File RESULTS_FILE = new File("build/benchmark/results.json");
+
+    private static final Pattern ENTRY = Pattern.compile(
+            "\"([^\"]+)\"\\s*:\\s*\\{\\s*\"nsPerOp\"\\s*:\\s*(null|[-+.0-9eE]+)\\s*,\\s*\"allocatedBytesPerOp\"\\s*:\\s*(null|[-+.0-9eE]+)\\s*\\}");
+
+    private Baseline() {
+    }
+
+    /**
+     * Prints and saves the result and compares it with the baseline.
+     *
+     * @return description of the regression or null if the result is fine or checks are disabled
+     */
+    public static synchronized String report(String name, Score score) throws IOException {
+        Map<String, Score> results = read(RESULTS_FILE);
+        results.put(name, score);
+        write(RESULTS_FILE, results);
+
+        Score baseline = read(BASELINE_FILE).get(name);
+        String regression = null;
+        String comparison;
+        if (baseline == null || Double.isNaN(baseline.nsPerOp) ||
+                Double.isNaN(baseline.allocatedBytesPerOp) && !Double.isNaN(score.allocatedBytesPerOp)) {
+            comparison = "no baseline";
+            regression = name + ": no baseline recorded, run ./gradlew :benchmark:recordBaseline";
+        } else {
+            comparison = String.format(Locale.US, "baseline %s ns/op, %s B/op", format(baseline.nsPerOp), format(baseline.allocatedBytesPerOp));
+            if (score.nsPerOp > baseline.nsPerOp * (1 + TIME_TOLERANCE)) {
+                regression = String.format(Locale.US, "%s: %s ns/op is slower than the baseline of %s ns/op", name, format(score.nsPerOp), format(baseline.nsPerOp));
+            } else if (score.allocatedBytesPerOp > baseline.allocatedBytesPerOp * (1 + ALLOCATION_TOLERANCE) + ALLOCATION_SLACK) {
+                regression = String.format(Locale.US, "%s: %s B/op allocates more than the baseline of %s B/op", name, format(score.allocatedBytesPerOp), format(baseline.allocatedBytesPerOp));
+            }
+        }
+        System.out.println(String.format(Locale.US, "%-50s %12s ns/op %12s B/op   %s%s", name, format(score.nsPerOp), format(score.allocatedBytesPerOp),
+                comparison, regression != null ? ", FAILED" : ""));
+
+        return isCheckEnabled() ? regression : null;
+    }
+
+    private static boolean isCheckEnabled() {
+        return !"false".equals(System.getProperty("carbon.benchmark.check"));
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "-" : String.format(Locale.US, "%.1f", value);
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        if (!file.exists())
+            return scores;
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        Matcher matcher = ENTRY.matcher(json);
+        while (matcher.find())
+            scores.put(matcher.group(1), new Score(parse(matcher.group(2)), parse(matcher.group(3))));
+        return scores;
+    }
+
+    private static double parse(String value) {
+        return value.equals("null") ? Double.NaN : Double.parseDouble(value);
+    }
+
+    private static void write(File file, Map<String, Score> scores) throws IOException {
+        StringBuilder builder = new StringBuilder("{\n");
+        int i = 0;
+        for (Map.Entry<String, Score> entry : scores.entrySet()) {
+            builder.append(String.format(Locale.US, "  \"%s\": {\"nsPerOp\": %s, \"allocatedBytesPerOp\": %s}", entry.getKey(),
+                    toJson(entry.getValue().nsPerOp), toJson(entry.getValue().allocatedBytesPerOp)));
+            builder.append(++i < scores.size() ? ",\n" : "\n");
+        }
+        builder.append("}\n");
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs())
+            throw new IOException("Couldn't create " + parent);
+        Files.write(file.toPath(), builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toJson(double value) {
+        return Double.isNaN(value) ? "null" : String.format(Locale.US, "%.1f", value);
+    }
+}
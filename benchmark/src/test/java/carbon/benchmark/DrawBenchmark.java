@@ -0,0 +1,51 @@
+package carbon.benchmark;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import carbon.widget.FrameLayout;
+
+/**
+ * Drawing of a layout with elevated children. Children have a shadow color, so their shadows are
+ * drawn by Carbon and not by the platform.
+ */
+public class DrawBenchmark extends AndroidBenchmark {
+    private static final int WIDTH = 1080, HEIGHT = 1920, CHILD_SIZE = 200;
+
+    private FrameLayout parent;
+    private FrameLayout child;
+    private Canvas canvas;
+
+    @Before
+    public void setUp() {
+        parent = new FrameLayout(getContext());
+        for (int i = 0; i < 16; i++) {
+            FrameLayout view = new FrameLayout(getContext());
+            view.setBackgroundColor(0xffffffff);
+            view.setElevationShadowColor(0x42000000);
+            view.setElevation(4 + i % 4 * 4);
+            FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(CHILD_SIZE, CHILD_SIZE);
+            params.leftMargin = i % 4 * (CHILD_SIZE + 40) + 40;
+            params.topMargin = i / 4 * (CHILD_SIZE + 40) + 40;
+            parent.addView(view, params);
+        }
+        child = (FrameLayout) parent.getChildAt(0);
+        parent.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, WIDTH, HEIGHT);
+        canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+    }
+
+    @Test
+    public void dispatchDraw() throws Exception {
+        benchmark("dispatchDraw", 100, i -> parent.draw(canvas));
+    }
+
+    @Test
+    public void drawShadow() throws Exception {
+        benchmark("drawShadow", 1000, i -> child.drawShadow(canvas));
+    }
+}
@@ -0,0 +1,65 @@
+package carbon.benchmark;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import carbon.internal.ElevationComparator;
+import carbon.internal.ElevationDrawingOrder;
+import carbon.widget.FrameLayout;
+
+/**
+ * Drawing order of elevated children. The comparator sort is what drawing used to do on each
+ * frame, the drawing order cache is what it does now.
+ */
+public class ElevationBenchmark extends AndroidBenchmark {
+    private static final int CHILD_COUNT = 32;
+
+    private FrameLayout parent;
+    private View[] children;
+
+    @Before
+    public void setUp() {
+        parent = new FrameLayout(getContext());
+        Random random = new Random(42);
+        for (int i = 0; i < CHILD_COUNT; i++) {
+            FrameLayout child = new FrameLayout(getContext());
+            child.setElevation(random.nextInt(5) * 2);
+            parent.addView(child);
+        }
+        children = new View[CHILD_COUNT];
+    }
+
+    @Test
+    public void comparatorSort() throws Exception {
+        ElevationComparator comparator = new ElevationComparator();
+        benchmark("comparatorSort", 1000, i -> {
+            for (int j = 0; j < CHILD_COUNT; j++)
+                children[j] = parent.getChildAt(j);
+            Arrays.sort(children, comparator);
+        });
+    }
+
+    @Test
+    public void drawingOrder() throws Exception {
+        ElevationDrawingOrder order = parent.getElevationDrawingOrder();
+        benchmark("drawingOrder", 1000, i -> {
+            for (int j = 0; j < CHILD_COUNT; j++)
+                order.getChildDrawingOrder(CHILD_COUNT, j);
+        });
+    }
+
+    @Test
+    public void drawingOrderRebuild() throws Exception {
+        ElevationDrawingOrder order = parent.getElevationDrawingOrder();
+        benchmark("drawingOrderRebuild", 1000, i -> {
+            order.invalidate();
+            for (int j = 0; j < CHILD_COUNT; j++)
+                order.getChildDrawingOrder(CHILD_COUNT, j);
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package carbon.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Mapping adapter positions to groups and children of an expandable adapter.
+ */
+public class ExpandableAdapterBenchmark extends AndroidBenchmark {
+    private static final int GROUP_COUNT = 1000;
+
+    private GroupAdapter adapter;
+
+    @Before
+    public void setUp() {
+        adapter = new GroupAdapter(GROUP_COUNT, 5);
+        for (int i = 0; i < GROUP_COUNT; i += 2)
+            adapter.expand(i);
+    }
+
+    @Test
+    public void getItemViewType() throws Exception {
+        int itemCount = adapter.getItemCount();
+        benchmark("getItemViewType", 10000, i -> adapter.getItemViewType(i * 31 % itemCount));
+    }
+
+    @Test
+    public void getItem() throws Exception {
+        int itemCount = adapter.getItemCount();
+        benchmark("getItem", 10000, i -> adapter.getItem(i * 31 % itemCount));
+    }
+
+    @Test
+    public void expandCollapse() throws Exception {
+        benchmark("expandCollapse", 1000, i -> {
+            int group = i * 2 % GROUP_COUNT + 1;
+            adapter.expand(group);
+            adapter.collapse(group);
+        });
+    }
+}
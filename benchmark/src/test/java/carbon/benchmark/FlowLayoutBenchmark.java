@@ -0,0 +1,38 @@
+package carbon.benchmark;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import carbon.widget.FlowLayout;
+import carbon.widget.TextView;
+
+/**
+ * Measuring and laying out a FlowLayout with chip-like children.
+ */
+public class FlowLayoutBenchmark extends AndroidBenchmark {
+    private static final int WIDTH = 1080, HEIGHT = 1920;
+
+    private FlowLayout flowLayout;
+
+    @Before
+    public void setUp() {
+        flowLayout = new FlowLayout(getContext());
+        for (String word : Words.items(50, 1)) {
+            TextView textView = new TextView(getContext());
+            textView.setText(word);
+            textView.setPadding(24, 8, 24, 8);
+            flowLayout.addView(textView);
+        }
+    }
+
+    @Test
+    public void measureAndLayout() throws Exception {
+        benchmark("measureAndLayout", 100, i -> {
+            flowLayout.forceLayout();
+            flowLayout.measure(View.MeasureSpec.makeMeasureSpec(WIDTH - i % 2 * 100, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.AT_MOST));
+            flowLayout.layout(0, 0, flowLayout.getMeasuredWidth(), flowLayout.getMeasuredHeight());
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package carbon.benchmark;
+
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import carbon.widget.ExpandableRecyclerView;
+
+/**
+ * Expandable adapter with groups of the same size. Doesn't create views.
+ */
+public class GroupAdapter extends ExpandableRecyclerView.Adapter<RecyclerView.ViewHolder, RecyclerView.ViewHolder, String, String> {
+    private final int groupCount, childCount;
+
+    public GroupAdapter(int groupCount, int childCount) {
+        this.groupCount = groupCount;
+        this.childCount = childCount;
+    }
+
+    @Override
+    public int getGroupItemCount() {
+        return groupCount;
+    }
+
+    @Override
+    public int getChildItemCount(int group) {
+        return childCount;
+    }
+
+    @Override
+    public String getGroupItem(int position) {
+        return "group";
+    }
+
+    @Override
+    public String getChildItem(int group, int position) {
+        return "child";
+    }
+
+    @Override
+    protected RecyclerView.ViewHolder onCreateGroupViewHolder(ViewGroup parent) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected RecyclerView.ViewHolder onCreateChildViewHolder(ViewGroup parent, int viewType) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getChildItemViewType(int group, int position) {
+        return 1;
+    }
+}
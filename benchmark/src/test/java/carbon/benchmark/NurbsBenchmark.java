@@ -0,0 +1,28 @@
+package carbon.benchmark;
+
+import android.graphics.PointF;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import carbon.internal.NURBS;
+
+/**
+ * Evaluating points of a NURBS curve, as done for each frame of path animations.
+ */
+public class NurbsBenchmark extends AndroidBenchmark {
+    private NURBS nurbs;
+
+    @Before
+    public void setUp() {
+        nurbs = new NURBS();
+        for (int i = 0; i < 8; i++)
+            nurbs.addPoint(new PointF(i * 100, i % 2 * 200));
+        nurbs.init();
+    }
+
+    @Test
+    public void getPoint() throws Exception {
+        benchmark("getPoint", 10000, i -> nurbs.getPoint((i % 99 + 1) / 100.0f));
+    }
+}
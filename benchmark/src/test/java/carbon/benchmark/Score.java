@@ -0,0 +1,14 @@
+package carbon.benchmark;
+
+/**
+ * Result of a benchmark. Values which couldn't be measured are NaN.
+ */
+public final class Score {
+    public final double nsPerOp;
+    public final double allocatedBytesPerOp;
+
+    public Score(double nsPerOp, double allocatedBytesPerOp) {
+        this.nsPerOp = nsPerOp;
+        this.allocatedBytesPerOp = allocatedBytesPerOp;
+    }
+}
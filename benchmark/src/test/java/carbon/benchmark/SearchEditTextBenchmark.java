@@ -0,0 +1,60 @@
+package carbon.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import carbon.widget.SearchEditText;
+
+/**
+ * Filtering items on the calling thread.
+ */
+public class SearchEditTextBenchmark extends AndroidBenchmark {
+    private static final String[] QUERIES = {"ber", "ol", "kaqui", "tason", "mo"};
+
+    private SearchEditText searchEditText;
+
+    @Before
+    public void setUp() {
+        searchEditText = new SearchEditText(getContext());
+        searchEditText.setSearchExecutor(null);
+        searchEditText.setDataProvider(new StringSearchAdapter(Words.items(2000, 3)));
+    }
+
+    @Test
+    public void filterStart() throws Exception {
+        searchEditText.setMatchMode(SearchEditText.MatchMode.START);
+        benchmark("filterStart", 100, i -> searchEditText.filter(QUERIES[i % QUERIES.length]));
+    }
+
+    @Test
+    public void filterAdjacent() throws Exception {
+        searchEditText.setMatchMode(SearchEditText.MatchMode.ADJACENT);
+        benchmark("filterAdjacent", 100, i -> searchEditText.filter(QUERIES[i % QUERIES.length]));
+    }
+
+    @Test
+    public void filterNonadjacent() throws Exception {
+        searchEditText.setMatchMode(SearchEditText.MatchMode.NONADJACENT);
+        benchmark("filterNonadjacent", 100, i -> searchEditText.filter(QUERIES[i % QUERIES.length]));
+    }
+
+    @Test
+    public void filterExtendedQuery() throws Exception {
+        // typing narrows down the results of the previous query
+        searchEditText.setMatchMode(SearchEditText.MatchMode.ADJACENT);
+        benchmark("filterExtendedQuery", 100, i -> {
+            searchEditText.filter("be");
+            searchEditText.filter("ber");
+            searchEditText.filter("bera");
+        });
+    }
+
+    @Test
+    public void filterAfterItemsChanged() throws Exception {
+        searchEditText.setMatchMode(SearchEditText.MatchMode.ADJACENT);
+        benchmark("filterAfterItemsChanged", 10, i -> {
+            searchEditText.invalidateSearchIndex();
+            searchEditText.filter(QUERIES[i % QUERIES.length]);
+        });
+    }
+}
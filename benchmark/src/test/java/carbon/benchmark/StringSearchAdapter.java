@@ -0,0 +1,29 @@
+package carbon.benchmark;
+
+import carbon.widget.SearchAdapter;
+
+/**
+ * Search adapter of space separated words.
+ */
+public class StringSearchAdapter extends SearchAdapter<String> {
+    private final String[] items;
+
+    public StringSearchAdapter(String[] items) {
+        this.items = items;
+    }
+
+    @Override
+    public int getItemCount() {
+        return items.length;
+    }
+
+    @Override
+    public String getItem(int i) {
+        return items[i];
+    }
+
+    @Override
+    public String[] getItemWords(String item) {
+        return item.split(" ");
+    }
+}
@@ -0,0 +1,46 @@
+package carbon.benchmark;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import carbon.internal.TextSizeFitter;
+import carbon.widget.AutoSizeTextMode;
+import carbon.widget.TextView;
+
+/**
+ * Setting text of an auto sized TextView, which fits the text size on each change.
+ */
+public class TextViewBenchmark extends AndroidBenchmark {
+    private TextView textView;
+    private String[] texts;
+
+    @Before
+    public void setUp() {
+        textView = new TextView(getContext());
+        textView.setMaxLines(2);
+        textView.setAutoSizeText(AutoSizeTextMode.Uniform);
+        textView.setMinTextSize(8);
+        textView.setMaxTextSize(64);
+        textView.setAutoSizeStepGranularity(1);
+        textView.measure(View.MeasureSpec.makeMeasureSpec(400, View.MeasureSpec.EXACTLY), View.MeasureSpec.makeMeasureSpec(100, View.MeasureSpec.EXACTLY));
+        textView.layout(0, 0, 400, 100);
+        texts = Words.items(8, 3);
+        TextSizeFitter.clear();
+    }
+
+    @Test
+    public void adjustTextSize() throws Exception {
+        // the same few texts, like in recycled list rows, so sizes come from the cache
+        benchmark("adjustTextSize", 1000, i -> textView.setText(texts[i % texts.length]));
+    }
+
+    @Test
+    public void adjustTextSizeUncached() throws Exception {
+        benchmark("adjustTextSizeUncached", 100, i -> {
+            TextSizeFitter.clear();
+            textView.setText(texts[i % texts.length]);
+        });
+    }
+}
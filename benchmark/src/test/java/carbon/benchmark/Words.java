@@ -0,0 +1,38 @@
+package carbon.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates pronounceable words, the same for each run.
+ */
+public final class Words {
+    private static final String[] SYLLABLES = {
+            "ba", "ber", "ca", "do", "el", "fi", "gan", "ho", "in", "ka", "lem", "mo",
+            "na", "ol", "pe", "qui", "ra", "son", "ta", "ul", "ve", "wa", "xe", "zo"
+    };
+
+    private Words() {
+    }
+
+    /**
+     * @param count         number of items
+     * @param wordsPerItem  number of words in each item
+     */
+    public static String[] items(int count, int wordsPerItem) {
+        Random random = new Random(42);
+        String[] items = new String[count];
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.setLength(0);
+            for (int j = 0; j < wordsPerItem; j++) {
+                if (j > 0)
+                    builder.append(' ');
+                int syllables = 2 + random.nextInt(3);
+                for (int k = 0; k < syllables; k++)
+                    builder.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            items[i] = builder.toString();
+        }
+        return items;
+    }
+}
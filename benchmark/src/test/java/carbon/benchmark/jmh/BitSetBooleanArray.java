@@ -0,0 +1,27 @@
+package carbon.benchmark.jmh;
+
+import android.util.SparseBooleanArray;
+
+import java.util.BitSet;
+
+/**
+ * SparseBooleanArray working without android.jar, which is only stubbed for JMH.
+ */
+class BitSetBooleanArray extends SparseBooleanArray {
+    private final BitSet values = new BitSet();
+
+    @Override
+    public boolean get(int key) {
+        return values.get(key);
+    }
+
+    @Override
+    public boolean get(int key, boolean valueIfKeyNotFound) {
+        return values.get(key);
+    }
+
+    @Override
+    public void put(int key, boolean value) {
+        values.set(key, value);
+    }
+}
@@ -0,0 +1,176 @@
+package carbon.benchmark.jmh;
+
+import android.content.res.ColorStateList;
+import android.graphics.Canvas;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import carbon.internal.ElevationComparator;
+import carbon.internal.ElevationDrawingOrder;
+import carbon.view.ShadowView;
+
+/**
+ * Elevation based drawing order of 32 children, sorted with ElevationComparator on each call like
+ * before and cached by ElevationDrawingOrder. Views are stubs, android.jar isn't available for JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrawingOrderBenchmark {
+    private static final int CHILD_COUNT = 32;
+
+    private static class ElevatedView extends View implements ShadowView {
+        private float elevation;
+
+        ElevatedView(float elevation) {
+            super(null);
+            this.elevation = elevation;
+        }
+
+        @Override
+        public float getElevation() {
+            return elevation;
+        }
+
+        @Override
+        public void setElevation(float elevation) {
+            this.elevation = elevation;
+        }
+
+        @Override
+        public float getTranslationZ() {
+            return 0;
+        }
+
+        @Override
+        public void setTranslationZ(float translationZ) {
+        }
+
+        @Override
+        public ColorStateList getElevationShadowColor() {
+            return null;
+        }
+
+        @Override
+        public void setElevationShadowColor(ColorStateList shadowColor) {
+        }
+
+        @Override
+        public void setElevationShadowColor(int color) {
+        }
+
+        @Override
+        public int getOutlineAmbientShadowColor() {
+            return 0;
+        }
+
+        @Override
+        public void setOutlineAmbientShadowColor(int color) {
+        }
+
+        @Override
+        public void setOutlineAmbientShadowColor(ColorStateList color) {
+        }
+
+        @Override
+        public int getOutlineSpotShadowColor() {
+            return 0;
+        }
+
+        @Override
+        public void setOutlineSpotShadowColor(int color) {
+        }
+
+        @Override
+        public void setOutlineSpotShadowColor(ColorStateList color) {
+        }
+
+        @Override
+        public boolean hasShadow() {
+            return elevation > 0;
+        }
+
+        @Override
+        public void drawShadow(Canvas canvas) {
+        }
+    }
+
+    private static class Parent extends ViewGroup {
+        private final View[] children;
+
+        Parent(View[] children) {
+            super(null);
+            this.children = children;
+        }
+
+        @Override
+        public int getChildCount() {
+            return children.length;
+        }
+
+        @Override
+        public View getChildAt(int index) {
+            return children[index];
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        }
+    }
+
+    private final ElevationComparator comparator = new ElevationComparator();
+    private View[] children, sortedChildren;
+    private ElevationDrawingOrder order;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        children = new View[CHILD_COUNT];
+        for (int i = 0; i < CHILD_COUNT; i++)
+            children[i] = new ElevatedView(random.nextInt(5) * 2);
+        sortedChildren = new View[CHILD_COUNT];
+        order = new ElevationDrawingOrder(new Parent(children));
+    }
+
+    @Benchmark
+    public View[] comparatorSort() {
+        System.arraycopy(children, 0, sortedChildren, 0, CHILD_COUNT);
+        Arrays.sort(sortedChildren, comparator);
+        return sortedChildren;
+    }
+
+    @Benchmark
+    public int cachedOrder() {
+        int sum = 0;
+        for (int i = 0; i < CHILD_COUNT; i++)
+            sum += order.getChildDrawingOrder(CHILD_COUNT, i);
+        return sum;
+    }
+
+    @Benchmark
+    public int rebuiltOrder() {
+        order.invalidate();
+        int sum = 0;
+        for (int i = 0; i < CHILD_COUNT; i++)
+            sum += order.getChildDrawingOrder(CHILD_COUNT, i);
+        return sum;
+    }
+}
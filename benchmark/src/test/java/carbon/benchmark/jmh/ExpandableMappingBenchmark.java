@@ -0,0 +1,62 @@
+package carbon.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import carbon.benchmark.GroupAdapter;
+
+/**
+ * Mapping between adapter positions and groups of ExpandableRecyclerView.Adapter, which keeps
+ * group sizes in a Fenwick tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpandableMappingBenchmark {
+    private static final int GROUP_COUNT = 1000;
+
+    private GroupAdapter adapter;
+    private int itemCount;
+    private int i = 0;
+
+    @Setup
+    public void setUp() {
+        adapter = new GroupAdapter(GROUP_COUNT, 5);
+        adapter.setExpandedGroups(new BitSetBooleanArray());
+        for (int i = 0; i < GROUP_COUNT; i += 2)
+            adapter.expand(i);
+        itemCount = adapter.getItemCount();
+    }
+
+    @Benchmark
+    public int getGroupAt() {
+        i = (i + 31) % itemCount;
+        return adapter.getGroupAt(i);
+    }
+
+    @Benchmark
+    public int getGroupPosition() {
+        i = (i + 31) % GROUP_COUNT;
+        return adapter.getGroupPosition(i);
+    }
+
+    @Benchmark
+    public void expandCollapse() {
+        i = (i + 2) % GROUP_COUNT;
+        adapter.expand(i | 1);
+        adapter.collapse(i | 1);
+    }
+}
@@ -0,0 +1,52 @@
+package carbon.benchmark.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import carbon.benchmark.Baseline;
+import carbon.benchmark.Score;
+
+/**
+ * Runs the JMH benchmarks of this package with the GC profiler and reports their average time and
+ * normalized allocation rate in the same way as the Robolectric benchmarks. Exits with 1 if any
+ * benchmark regressed.
+ */
+public class JmhMain {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(Pattern.quote(JmhMain.class.getPackage().getName() + "."))
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<RunResult> runResults = new Runner(options).run();
+
+        List<String> regressions = new ArrayList<>();
+        for (RunResult runResult : runResults) {
+            String benchmark = runResult.getParams().getBenchmark();
+            // simple class name and method, like the Robolectric benchmarks
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            double allocatedBytes = Double.NaN;
+            for (Map.Entry<String, Result> entry : runResult.getSecondaryResults().entrySet()) {
+                if (entry.getKey().endsWith("gc.alloc.rate.norm"))
+                    allocatedBytes = entry.getValue().getScore();
+            }
+            String regression = Baseline.report(name, new Score(runResult.getPrimaryResult().getScore(), allocatedBytes));
+            if (regression != null)
+                regressions.add(regression);
+        }
+
+        for (String regression : regressions)
+            System.err.println(regression);
+        System.exit(regressions.isEmpty() ? 0 : 1);
+    }
+}
@@ -0,0 +1,70 @@
+package carbon.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import carbon.benchmark.StringSearchAdapter;
+import carbon.benchmark.Words;
+import carbon.widget.SearchEditText;
+import carbon.widget.SearchIndex;
+
+/**
+ * Building and querying the search index used by SearchEditText and AutoCompleteEditText.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchIndexBenchmark {
+    private StringSearchAdapter adapter;
+    private List<String> items;
+    private SearchIndex<String> index;
+
+    @Setup
+    public void setUp() {
+        String[] words = Words.items(2000, 3);
+        adapter = new StringSearchAdapter(words);
+        items = Arrays.asList(words);
+        index = new SearchIndex<>(adapter, items, false);
+    }
+
+    @Benchmark
+    public SearchIndex<String> build() {
+        return new SearchIndex<>(adapter, items, false);
+    }
+
+    @Benchmark
+    public BitSet searchStart() {
+        return index.search("ber", SearchEditText.MatchMode.START, null, null);
+    }
+
+    @Benchmark
+    public BitSet searchAdjacent() {
+        return index.search("ber", SearchEditText.MatchMode.ADJACENT, null, null);
+    }
+
+    @Benchmark
+    public BitSet searchNonadjacent() {
+        return index.search("ber", SearchEditText.MatchMode.NONADJACENT, null, null);
+    }
+
+    @Benchmark
+    public int[] complete() {
+        return index.complete("ka", "", 5, null);
+    }
+}
@@ -0,0 +1,55 @@
+package carbon.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import carbon.benchmark.Words;
+import carbon.internal.TextSizeFitter;
+
+/**
+ * Lookups of fitted text sizes. Text isn't laid out on the host JVM, so only the cost of the keys
+ * and of the cache is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextSizeFitterBenchmark {
+    private final TextSizeFitter fitter = new TextSizeFitter();
+    private final float[] presets = new float[57];
+    private String[] texts;
+    private int i = 0;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < presets.length; i++)
+            presets[i] = 8 + i;
+        texts = Words.items(8, 3);
+        TextSizeFitter.clear();
+        for (String text : texts)
+            fitter.fit(text, null, 400, 100, 2, 1, 0, presets);
+    }
+
+    @Benchmark
+    public float lastRequest() {
+        return fitter.fit(texts[0], null, 400, 100, 2, 1, 0, presets);
+    }
+
+    @Benchmark
+    public float cacheHit() {
+        i = (i + 1) % texts.length;
+        return fitter.fit(texts[i], null, 400, 100, 2, 1, 0, presets);
+    }
+}
@@ -0,0 +1,150 @@
+package carbon.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates component registries for classes annotated with carbon.component.RegisterComponents.
+ * For an annotated class App, App + "Components" is generated in the same package. Its register()
+ * method registers a constructor reference for each listed component in ComponentRegistry, so
+ * only the listed components are referenced by the app's code.
+ */
+public class ComponentRegistryProcessor extends AbstractProcessor {
+    private static final String ANNOTATION = "carbon.component.RegisterComponents";
+    private static final String VIEW_GROUP = "android.view.ViewGroup";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.INTERFACE) {
+                    error(element, "@RegisterComponents can be used only on classes and interfaces");
+                    continue;
+                }
+                generateRegistry((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void generateRegistry(TypeElement element) {
+        AnnotationMirror mirror = getAnnotationMirror(element);
+        if (mirror == null)
+            return;
+
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(element);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String className = element.getSimpleName() + "Components";
+
+        StringBuilder builder = new StringBuilder();
+        if (!packageName.isEmpty())
+            builder.append("package ").append(packageName).append(";\n\n");
+        builder.append("/**\n")
+                .append(" * Registers components listed by {@link ").append(element.getQualifiedName()).append("}. Generated by carbon-processor.\n")
+                .append(" */\n")
+                .append("public final class ").append(className).append(" {\n")
+                .append("    private ").append(className).append("() {\n")
+                .append("    }\n\n")
+                .append("    public static void register() {\n");
+
+        for (TypeElement component : getComponents(mirror)) {
+            if (!hasViewGroupConstructor(component)) {
+                error(element, component.getQualifiedName() + " needs a public (ViewGroup) constructor");
+                return;
+            }
+            builder.append("        carbon.component.ComponentRegistry.register(\"")
+                    .append(processingEnv.getElementUtils().getBinaryName(component))
+                    .append("\", ")
+                    .append(component.getQualifiedName())
+                    .append("::new);\n");
+        }
+
+        builder.append("    }\n")
+                .append("}\n");
+
+        String fileName = packageName.isEmpty() ? className : packageName + "." + className;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(fileName, element);
+            try (Writer writer = file.openWriter()) {
+                writer.write(builder.toString());
+            }
+        } catch (IOException e) {
+            error(element, "Couldn't generate " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    private AnnotationMirror getAnnotationMirror(TypeElement element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION))
+                return mirror;
+        }
+        return null;
+    }
+
+    // class values can't be read from the annotation itself, because the classes may not be compiled yet
+    private List<TypeElement> getComponents(AnnotationMirror mirror) {
+        List<TypeElement> components = new ArrayList<>();
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (!entry.getKey().getSimpleName().contentEquals("value"))
+                continue;
+            @SuppressWarnings("unchecked")
+            List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) entry.getValue().getValue();
+            for (AnnotationValue value : values) {
+                TypeMirror type = (TypeMirror) value.getValue();
+                components.add((TypeElement) ((DeclaredType) type).asElement());
+            }
+        }
+        return components;
+    }
+
+    private boolean hasViewGroupConstructor(TypeElement component) {
+        if (component.getModifiers().contains(Modifier.ABSTRACT) || !component.getModifiers().contains(Modifier.PUBLIC))
+            return false;
+        if (component.getEnclosingElement().getKind() != ElementKind.PACKAGE && !component.getModifiers().contains(Modifier.STATIC))
+            return false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(component.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (constructor.getModifiers().contains(Modifier.PUBLIC) && parameters.size() == 1 &&
+                    processingEnv.getTypeUtils().erasure(parameters.get(0).asType()).toString().equals(VIEW_GROUP))
+                return true;
+        }
+        return false;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -5,6 +5,8 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Path;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffColorFilter;
 import android.graphics.PorterDuffXfermode;
@@ -29,12 +31,14 @@ import androidx.core.content.ContextCompat;
 import androidx.core.content.res.ResourcesCompat;
 import androidx.core.graphics.drawable.TintAwareDrawable;
 
+import com.google.android.material.shape.CornerTreatment;
 import com.google.android.material.shape.CutCornerTreatment;
 import com.google.android.material.shape.RoundedCornerTreatment;
 import com.google.android.material.shape.ShapeAppearanceModel;
 
 import java.lang.ref.WeakReference;
 import java.security.InvalidParameterException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import carbon.animation.AnimUtils;
@@ -47,11 +51,16 @@ import carbon.drawable.ColorStateListFactory;
 import carbon.drawable.VectorDrawable;
 import carbon.drawable.ripple.RippleDrawable;
 import carbon.drawable.ripple.RippleView;
+import carbon.internal.ColorStateListCache;
+import carbon.internal.MenuCache;
+import carbon.internal.VectorCache;
 import carbon.view.AutoSizeTextView;
 import carbon.view.InsetView;
 import carbon.view.MaxSizeView;
 import carbon.view.RevealView;
 import carbon.view.ShadowView;
+import carbon.view.ShapeClipMode;
+import carbon.view.ShapeClipModeView;
 import carbon.view.ShapeModelView;
 import carbon.view.StateAnimatorView;
 import carbon.view.StrokeView;
@@ -96,6 +105,16 @@ public class Carbon {
         Context context = view.getContext();
         int resourceId = a.getResourceId(id, 0);
 
+        ColorStateList list = ColorStateListCache.get(context, resourceId);
+        if (list == null) {
+            list = createDefaultColorStateList(context, resourceId);
+            if (list != null)
+                ColorStateListCache.put(context, resourceId, list);
+        }
+        return list;
+    }
+
+    private static ColorStateList createDefaultColorStateList(Context context, int resourceId) {
         if (resourceId == R.color.carbon_defaultColorPrimary) {
             return ColorStateListFactory.INSTANCE.makePrimary(context);
         } else if (resourceId == R.color.carbon_defaultColorPrimaryInverse) {
@@ -378,6 +397,7 @@ public class Carbon {
             int resId = a.getResourceId(attr, 0);
             if (resId != 0) {
                 if (view.getContext().getResources().getResourceTypeName(resId).equals("raw")) {
+                    VectorCache.register(view.getContext());
                     return new VectorDrawable(view.getResources(), resId);
                 } else {
                     return ContextCompat.getDrawable(view.getContext(), resId);
@@ -476,6 +496,11 @@ public class Carbon {
                 .setBottomRightCorner(cornerCutBottomEnd >= cornerRadiusBottomEnd ? new CutCornerTreatment(cornerCutBottomEnd) : new RoundedCornerTreatment(cornerRadiusBottomEnd))
                 .build();
         shapeModelView.setShapeModel(model);
+
+        if (ids.length > 10 && shapeModelView instanceof ShapeClipModeView) {
+            int carbon_shapeClipMode = ids[10];
+            ((ShapeClipModeView) shapeModelView).setShapeClipMode(ShapeClipMode.values()[a.getInt(carbon_shapeClipMode, 0)]);
+        }
     }
 
     public static void initAutoSizeText(AutoSizeTextView view, TypedArray a, int[] ids) {
@@ -503,11 +528,19 @@ public class Carbon {
         return typedValueAttr.resourceId;
     }
 
+    /**
+     * Inflates a menu resource. Parsed menus are cached, so subsequent calls only copy the cached
+     * items to a new menu. Menus with items declaring android:onClick are inflated on every call,
+     * because the click listeners can't be copied.
+     */
     public static Menu getMenu(Context context, int resId) {
-        Context contextWrapper = context;
-        Menu menu = new MenuBuilder(contextWrapper);
-        MenuInflater inflater = new SupportMenuInflater(contextWrapper);
+        Menu menu = MenuCache.get(context, resId);
+        if (menu != null)
+            return menu;
+        menu = new MenuBuilder(context);
+        MenuInflater inflater = new SupportMenuInflater(context);
         inflater.inflate(resId, menu);
+        MenuCache.put(context, resId, menu);
         return menu;
     }
 
@@ -560,6 +593,45 @@ public class Carbon {
                 model.getBottomRightCornerSize().getCornerSize(bounds) <= 0.2f;
     }
 
+    /**
+     * Checks if a view's shape and reveal should be clipped using clipPath instead of an offscreen
+     * layer. Hardware accelerated canvases support clipPath since API 18.
+     */
+    public static boolean shouldClipPath(ShapeClipMode mode, Canvas canvas, ShapeAppearanceModel model, RectF bounds, boolean reveal) {
+        if (canvas.isHardwareAccelerated() && Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2)
+            return false;
+        switch (mode) {
+            case LAYER:
+                return false;
+            case CLIP_PATH:
+                return true;
+            default:
+                // clipPath is not anti-aliased, so it's used only for masks with straight edges
+                return !reveal && isShapeStraight(model, bounds);
+        }
+    }
+
+    private static boolean isShapeStraight(ShapeAppearanceModel model, RectF bounds) {
+        return isCornerStraight(model.getTopLeftCorner(), model.getTopLeftCornerSize().getCornerSize(bounds)) &&
+                isCornerStraight(model.getTopRightCorner(), model.getTopRightCornerSize().getCornerSize(bounds)) &&
+                isCornerStraight(model.getBottomLeftCorner(), model.getBottomLeftCornerSize().getCornerSize(bounds)) &&
+                isCornerStraight(model.getBottomRightCorner(), model.getBottomRightCornerSize().getCornerSize(bounds));
+    }
+
+    private static boolean isCornerStraight(CornerTreatment corner, float size) {
+        return corner instanceof CutCornerTreatment || size <= 0.2f;
+    }
+
+    /**
+     * Clips the canvas to the inside of the path regardless of the path's fill type.
+     */
+    public static void clipPath(Canvas canvas, Path path) {
+        Path.FillType fillType = path.getFillType();
+        path.setFillType(Path.FillType.WINDING);
+        canvas.clipPath(path);
+        path.setFillType(fillType);
+    }
+
     public static void logReflectionError(Exception e) {
         StackTraceElement cause = e.getStackTrace()[0];
         StackTraceElement stackTraceElement = Thread.currentThread().getStackTrace()[3];
@@ -601,6 +673,31 @@ public class Carbon {
         }
     }
 
+    /**
+     * Loads fonts on the given executor, so text appearances using them don't load them on the
+     * main thread. Fonts are loaded with the normal weight.
+     */
+    public static void preloadFonts(@NonNull Context context, @NonNull int[] fontIds, @NonNull Executor executor) {
+        preloadFonts(context, fontIds, new int[]{400}, executor);
+    }
+
+    /**
+     * Loads fonts with the given weights on the given executor.
+     */
+    public static void preloadFonts(@NonNull Context context, @NonNull int[] fontIds, @NonNull int[] weights, @NonNull Executor executor) {
+        Context appContext = context.getApplicationContext();
+        for (int fontId : fontIds) {
+            for (int weight : weights) {
+                executor.execute(() -> {
+                    try {
+                        carbon.internal.ResourcesCompat.getFont(appContext, fontId, new TypedValue(), Typeface.NORMAL, weight, null);
+                    } catch (Resources.NotFoundException ignored) {
+                    }
+                });
+            }
+        }
+    }
+
     public static void setTextAppearance(TextAppearanceView tv, int resid, boolean hasTextColor, boolean readAll) {
         TypedArray appearance = ((View) tv).getContext().obtainStyledAttributes(resid, R.styleable.TextAppearance);
 
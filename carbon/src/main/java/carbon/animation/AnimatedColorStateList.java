@@ -1,26 +1,24 @@
 package carbon.animation;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
 import android.animation.ValueAnimator;
 import android.content.res.ColorStateList;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.util.StateSet;
-import android.view.animation.AccelerateDecelerateInterpolator;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
-
-import carbon.internal.ArgbEvaluator;
+import java.util.WeakHashMap;
 
 public class AnimatedColorStateList extends ColorStateList {
     private final int[][] states;
+    private final int[] colors;
     private int[] currentState = new int[0];
-    private ValueAnimator colorAnimation;
-    private int animatedColor;
+    final ValueAnimator.AnimatorUpdateListener listener;
+    int animatedColor;
+    int transitionIndex = -1;
 
-    private static Field mStateSpecsField, mColorsField, mDefaultColorField;
+    private static Field mStateSpecsField, mColorsField;
 
     static {
         try {
@@ -28,91 +26,94 @@ public class AnimatedColorStateList extends ColorStateList {
             mStateSpecsField.setAccessible(true);
             mColorsField = ColorStateList.class.getDeclaredField("mColors");
             mColorsField.setAccessible(true);
-            mDefaultColorField = ColorStateList.class.getDeclaredField("mDefaultColor");
-            mDefaultColorField.setAccessible(true);
         } catch (NoSuchFieldException e) {
             e.printStackTrace();
         }
     }
 
+    private static class Spec {
+        final int[][] states;
+        final int[] colors;
+
+        Spec(int[][] states, int[] colors) {
+            this.states = states;
+            this.colors = colors;
+        }
+    }
+
+    // states and colors of lists read using reflection, lists are immutable and often shared (like theme defaults)
+    private static final WeakHashMap<ColorStateList, Spec> specs = new WeakHashMap<>();
+
+    /**
+     * Creates an animated copy of a color state list. The listener is called on every frame of
+     * color transitions. Transitions of all lists are driven by one shared frame callback, so the
+     * animator passed to the listener is a shared one which is never started. It's set to the
+     * list's current color and positioned at the transition's fraction, and it's valid only during
+     * the call.
+     */
     public static AnimatedColorStateList fromList(ColorStateList list, ValueAnimator.AnimatorUpdateListener listener) {
-        int[][] mStateSpecs; // must be parallel to mColors
-        int[] mColors;      // must be parallel to mStateSpecs
-        int mDefaultColor;
+        if (list instanceof AnimatedColorStateList) {
+            AnimatedColorStateList animatedList = (AnimatedColorStateList) list;
+            return new AnimatedColorStateList(animatedList.states, animatedList.colors, listener);
+        }
 
-        try {
-            mStateSpecs = (int[][]) mStateSpecsField.get(list);
-            mColors = (int[]) mColorsField.get(list);
-            mDefaultColor = (int) mDefaultColorField.get(list);
-            AnimatedColorStateList animatedColorStateList = new AnimatedColorStateList(mStateSpecs, mColors, listener);
-            mDefaultColorField.set(animatedColorStateList, mDefaultColor);
-            return animatedColorStateList;
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+        Spec spec;
+        synchronized (specs) {
+            spec = specs.get(list);
+        }
+        if (spec == null) {
+            try {
+                spec = new Spec((int[][]) mStateSpecsField.get(list), (int[]) mColorsField.get(list));
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+                return null;
+            }
+            synchronized (specs) {
+                specs.put(list, spec);
+            }
         }
 
-        return null;
+        // the default color is derived from states and colors the same way it was for the original list
+        return new AnimatedColorStateList(spec.states, spec.colors, listener);
     }
 
     public AnimatedColorStateList(int[][] states, int[] colors, final ValueAnimator.AnimatorUpdateListener listener) {
         super(states, colors);
         this.states = states;
-        colorAnimation = ValueAnimator.ofInt(0, 0);
-        colorAnimation.setEvaluator(new ArgbEvaluator());
-        colorAnimation.setDuration(200);
-        colorAnimation.setInterpolator(new AccelerateDecelerateInterpolator());
-        colorAnimation.addUpdateListener(animation -> {
-            synchronized (AnimatedColorStateList.this) {
-                animatedColor = (int) animation.getAnimatedValue();
-                listener.onAnimationUpdate(animation);
-            }
-        });
-        colorAnimation.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                animatedColor = (int) colorAnimation.getAnimatedValue();
-                listener.onAnimationUpdate(colorAnimation);
-            }
-        });
+        this.colors = colors;
+        this.listener = listener;
     }
 
     @Override
     public int getColorForState(int[] stateSet, int defaultColor) {
-        synchronized (AnimatedColorStateList.this) {
-            if (Arrays.equals(stateSet, currentState) && colorAnimation.isRunning()) {
-                return animatedColor;
-            }
-        }
+        if (transitionIndex >= 0 && Arrays.equals(stateSet, currentState))
+            return animatedColor;
         return super.getColorForState(stateSet, defaultColor);
     }
 
     public void setState(int[] newState) {
-        synchronized (AnimatedColorStateList.this) {
-            if (Arrays.equals(newState, currentState))
-                return;
-
-            colorAnimation.end();
-
-            if (currentState.length != 0) {
-                for (final int[] state : states) {
-                    if (StateSet.stateSetMatches(state, newState)) {
-                        int firstColor = getColorForState(currentState, getDefaultColor());
-                        int secondColor = super.getColorForState(newState, getDefaultColor());
-                        colorAnimation.setIntValues(firstColor, secondColor);
-                        currentState = newState;
-                        animatedColor = firstColor;
-                        colorAnimation.start();
-                        return;
-                    }
+        if (Arrays.equals(newState, currentState))
+            return;
+
+        if (currentState.length != 0) {
+            for (final int[] state : states) {
+                if (StateSet.stateSetMatches(state, newState)) {
+                    // running transitions continue from the current color
+                    int firstColor = getColorForState(currentState, getDefaultColor());
+                    int secondColor = super.getColorForState(newState, getDefaultColor());
+                    currentState = newState;
+                    ColorTransitions.start(this, firstColor, secondColor);
+                    return;
                 }
             }
-
-            currentState = newState;
         }
+
+        ColorTransitions.end(this);
+        currentState = newState;
     }
 
     public void jumpToCurrentState() {
-        colorAnimation.end();
+        ColorTransitions.end(this);
     }
 
     public static final Parcelable.Creator<AnimatedColorStateList> CREATOR =
@@ -0,0 +1,178 @@
+package carbon.animation;
+
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import java.util.Arrays;
+
+import carbon.internal.ArgbEvaluator;
+
+/**
+ * Drives color transitions of all {@link AnimatedColorStateList}s with one frame callback.
+ * Transitions are kept in flat arrays and advanced together. Each listener is notified once per
+ * frame, even if it's shared by many transitions. Listeners receive a shared, stopped animator
+ * positioned at the transition's current fraction, so its animated value is the color of the last
+ * list the listener was notified for.
+ * <p>
+ * Should be used from the main thread only.
+ */
+class ColorTransitions {
+    static final long DURATION = 200;
+
+    private static final long FRAME_DELAY = 16;
+
+    private static AnimatedColorStateList[] lists = new AnimatedColorStateList[8];
+    private static int[] startColors = new int[8];
+    private static int[] endColors = new int[8];
+    private static long[] startTimes = new long[8];
+    private static int size = 0;
+
+    private static ValueAnimator.AnimatorUpdateListener[] listeners = new ValueAnimator.AnimatorUpdateListener[8];
+    private static int[] listenerColors = new int[8];
+    private static float[] listenerFractions = new float[8];
+    private static ValueAnimator animator;
+    private static boolean scheduled = false;
+
+    private static Handler handler;
+    private static final Runnable frameRunnable = () -> {
+        scheduled = false;
+        doFrame(System.nanoTime());
+    };
+    private static Choreographer.FrameCallback frameCallback;
+
+    private ColorTransitions() {
+    }
+
+    /**
+     * Starts a transition or restarts the list's running transition.
+     */
+    static void start(AnimatedColorStateList list, int startColor, int endColor) {
+        int index = list.transitionIndex;
+        if (index < 0) {
+            if (size == lists.length) {
+                int capacity = size * 2;
+                lists = Arrays.copyOf(lists, capacity);
+                startColors = Arrays.copyOf(startColors, capacity);
+                endColors = Arrays.copyOf(endColors, capacity);
+                startTimes = Arrays.copyOf(startTimes, capacity);
+            }
+            index = size++;
+            lists[index] = list;
+            list.transitionIndex = index;
+        }
+        startColors[index] = startColor;
+        endColors[index] = endColor;
+        startTimes[index] = System.nanoTime();
+        list.animatedColor = startColor;
+        schedule();
+    }
+
+    /**
+     * Ends the list's transition and notifies its listener.
+     */
+    static void end(AnimatedColorStateList list) {
+        int index = list.transitionIndex;
+        if (index < 0)
+            return;
+        list.animatedColor = endColors[index];
+        remove(index);
+        if (list.listener != null)
+            notifyListener(list.listener, list.animatedColor, 1);
+    }
+
+    private static void remove(int index) {
+        lists[index].transitionIndex = -1;
+        int last = --size;
+        if (index != last) {
+            lists[index] = lists[last];
+            startColors[index] = startColors[last];
+            endColors[index] = endColors[last];
+            startTimes[index] = startTimes[last];
+            lists[index].transitionIndex = index;
+        }
+        lists[last] = null;
+    }
+
+    private static void schedule() {
+        if (scheduled)
+            return;
+        scheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (frameCallback == null) {
+                frameCallback = frameTimeNanos -> {
+                    scheduled = false;
+                    doFrame(frameTimeNanos);
+                };
+            }
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        } else {
+            if (handler == null)
+                handler = new Handler(Looper.getMainLooper());
+            handler.postDelayed(frameRunnable, FRAME_DELAY);
+        }
+    }
+
+    private static void doFrame(long frameTimeNanos) {
+        int listenerCount = 0;
+        for (int i = 0; i < size; i++) {
+            AnimatedColorStateList list = lists[i];
+            float fraction = Math.max(0, Math.min(1, (frameTimeNanos - startTimes[i]) / 1000000f / DURATION));
+            // same curve as AccelerateDecelerateInterpolator
+            float interpolated = (float) (Math.cos((fraction + 1) * Math.PI) / 2.0f) + 0.5f;
+            list.animatedColor = ArgbEvaluator.evaluate(interpolated, startColors[i], endColors[i]);
+            if (fraction == 1) {
+                remove(i);
+                i--;
+            }
+            if (list.listener != null) {
+                int listenerIndex = indexOf(list.listener, listenerCount);
+                if (listenerIndex < 0) {
+                    if (listenerCount == listeners.length) {
+                        listeners = Arrays.copyOf(listeners, listenerCount * 2);
+                        listenerColors = Arrays.copyOf(listenerColors, listenerCount * 2);
+                        listenerFractions = Arrays.copyOf(listenerFractions, listenerCount * 2);
+                    }
+                    listenerIndex = listenerCount++;
+                    listeners[listenerIndex] = list.listener;
+                }
+                listenerColors[listenerIndex] = list.animatedColor;
+                listenerFractions[listenerIndex] = fraction;
+            }
+        }
+
+        // listeners may start new transitions
+        if (size > 0)
+            schedule();
+
+        for (int i = 0; i < listenerCount; i++) {
+            ValueAnimator.AnimatorUpdateListener listener = listeners[i];
+            listeners[i] = null;
+            notifyListener(listener, listenerColors[i], listenerFractions[i]);
+        }
+    }
+
+    private static void notifyListener(ValueAnimator.AnimatorUpdateListener listener, int color, float fraction) {
+        // stand-in for the animator each list used to have, it's never started
+        if (animator == null) {
+            animator = ValueAnimator.ofInt(color, color);
+            animator.setDuration(DURATION);
+            animator.setInterpolator(new AccelerateDecelerateInterpolator());
+        } else {
+            animator.setIntValues(color, color);
+        }
+        animator.setCurrentPlayTime((long) (fraction * DURATION));
+        listener.onAnimationUpdate(animator);
+    }
+
+    private static int indexOf(ValueAnimator.AnimatorUpdateListener listener, int count) {
+        for (int i = 0; i < count; i++) {
+            if (listeners[i] == listener)
+                return i;
+        }
+        return -1;
+    }
+}
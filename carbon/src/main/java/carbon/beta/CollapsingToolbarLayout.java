@@ -7,13 +7,8 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Matrix;
-import android.graphics.Outline;
-import android.graphics.Paint;
-import android.graphics.Path;
 import android.graphics.Point;
 import android.graphics.PointF;
 import android.graphics.Rect;
@@ -22,22 +17,18 @@ import android.graphics.drawable.Drawable;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
-import android.view.ViewAnimationUtils;
 import android.view.ViewGroup;
-import android.view.ViewOutlineProvider;
 
 import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
 
 import com.google.android.material.shape.CutCornerTreatment;
-import com.google.android.material.shape.MaterialShapeDrawable;
 import com.google.android.material.shape.RoundedCornerTreatment;
 import com.google.android.material.shape.ShapeAppearanceModel;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import carbon.Carbon;
@@ -45,16 +36,17 @@ import carbon.R;
 import carbon.animation.AnimatedView;
 import carbon.animation.StateAnimator;
 import carbon.component.Component;
-import carbon.component.ComponentView;
 import carbon.drawable.ripple.RippleDrawable;
 import carbon.drawable.ripple.RippleView;
-import carbon.internal.ElevationComparator;
-import carbon.internal.RevealAnimator;
+import carbon.internal.CarbonViewGroupDelegate;
+import carbon.internal.ElevationDrawingOrder;
 import carbon.view.InsetView;
 import carbon.view.MarginView;
 import carbon.view.MaxSizeView;
 import carbon.view.RevealView;
 import carbon.view.ShadowView;
+import carbon.view.ShapeClipMode;
+import carbon.view.ShapeClipModeView;
 import carbon.view.ShapeModelView;
 import carbon.view.StateAnimatorView;
 import carbon.view.StrokeView;
@@ -67,11 +59,13 @@ import carbon.widget.OnTransformationChangedListener;
 public class CollapsingToolbarLayout extends com.google.android.material.appbar.CollapsingToolbarLayout
         implements
         ShadowView,
+        ElevationDrawingOrder.Owner,
         RippleView,
         TouchMarginView,
         StateAnimatorView,
         AnimatedView,
         ShapeModelView,
+        ShapeClipModeView,
         InsetView,
         StrokeView,
         MaxSizeView,
@@ -136,7 +130,8 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
             R.styleable.CollapsingToolbarLayout_carbon_cornerCutTopEnd,
             R.styleable.CollapsingToolbarLayout_carbon_cornerCutBottomStart,
             R.styleable.CollapsingToolbarLayout_carbon_cornerCutBottomEnd,
-            R.styleable.CollapsingToolbarLayout_carbon_cornerCut
+            R.styleable.CollapsingToolbarLayout_carbon_cornerCut,
+            R.styleable.CollapsingToolbarLayout_carbon_shapeClipMode
     };
     private static int[] maxSizeIds = new int[]{
             R.styleable.CollapsingToolbarLayout_carbon_maxWidth,
@@ -168,9 +163,7 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
         setClipToPadding(false);
     }
 
-    private Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
-    private boolean drawCalled = false;
-    RevealAnimator revealAnimator;
+    private CarbonViewGroupDelegate delegate = new CarbonViewGroupDelegate(this, this::drawInternal, this::dispatchDrawInternal);
 
     public Point getLocationOnScreen() {
         int[] outLocation = new int[2];
@@ -186,52 +179,17 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
 
     @NotNull
     public Animator createCircularReveal(android.view.View hotspot, float startRadius, float finishRadius) {
-        int[] location = new int[2];
-        hotspot.getLocationOnScreen(location);
-        int[] myLocation = new int[2];
-        getLocationOnScreen(myLocation);
-        return createCircularReveal(location[0] - myLocation[0] + hotspot.getWidth() / 2, location[1] - myLocation[1] + hotspot.getHeight() / 2, startRadius, finishRadius);
+        return delegate.createCircularReveal(hotspot, startRadius, finishRadius);
     }
 
     @NotNull
     @Override
     public Animator createCircularReveal(int x, int y, float startRadius, float finishRadius) {
-        startRadius = Carbon.getRevealRadius(this, x, y, startRadius);
-        finishRadius = Carbon.getRevealRadius(this, x, y, finishRadius);
-        if (Carbon.IS_LOLLIPOP_OR_HIGHER) {
-            Animator circularReveal = ViewAnimationUtils.createCircularReveal(this, x, y, startRadius, finishRadius);
-            circularReveal.setDuration(Carbon.getDefaultRevealDuration());
-            return circularReveal;
-        } else {
-            revealAnimator = new RevealAnimator(x, y, startRadius, finishRadius);
-            revealAnimator.setDuration(Carbon.getDefaultRevealDuration());
-            revealAnimator.addUpdateListener(animation -> {
-                RevealAnimator reveal = ((RevealAnimator) animation);
-                reveal.radius = (float) reveal.getAnimatedValue();
-                reveal.mask.reset();
-                reveal.mask.addCircle(reveal.x, reveal.y, Math.max((Float) reveal.getAnimatedValue(), 1), Path.Direction.CW);
-                postInvalidate();
-            });
-            revealAnimator.addListener(new AnimatorListenerAdapter() {
-                @Override
-                public void onAnimationCancel(Animator animation) {
-                    revealAnimator = null;
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    revealAnimator = null;
-                }
-            });
-            return revealAnimator;
-        }
+        return delegate.createCircularReveal(x, y, startRadius, finishRadius);
     }
 
     @Override
     protected void dispatchDraw(@NonNull Canvas canvas) {
-        boolean r = revealAnimator != null && revealAnimator.isRunning();
-        boolean c = !Carbon.isShapeRect(shapeModel, boundsRect);
-
         if (Carbon.IS_PIE_OR_HIGHER) {
             if (spotShadowColor != null)
                 super.setOutlineSpotShadowColor(spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()));
@@ -239,101 +197,46 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
                 super.setOutlineAmbientShadowColor(ambientShadowColor.getColorForState(getDrawableState(), ambientShadowColor.getDefaultColor()));
         }
 
-        // draw not called, we have to handle corners here
-        if (isInEditMode() && !drawCalled && (r || c) && getWidth() > 0 && getHeight() > 0) {
-            Bitmap layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas layerCanvas = new Canvas(layer);
-            dispatchDrawInternal(layerCanvas);
-
-            Bitmap mask = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas maskCanvas = new Canvas(mask);
-            Paint maskPaint = new Paint(0xffffffff);
-            maskCanvas.drawPath(cornersMask, maskPaint);
-
-            for (int x = 0; x < getWidth(); x++) {
-                for (int y = 0; y < getHeight(); y++) {
-                    int maskPixel = mask.getPixel(x, y);
-                    layer.setPixel(x, y, Color.alpha(maskPixel) > 0 ? layer.getPixel(x, y) : 0);
-                }
-            }
-            canvas.drawBitmap(layer, 0, 0, paint);
-        } else if (!drawCalled && (r || c) && getWidth() > 0 && getHeight() > 0 && !Carbon.IS_LOLLIPOP_OR_HIGHER) {
-            int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
-
-            if (r) {
-                int saveCount2 = canvas.save();
-                canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
-                dispatchDrawInternal(canvas);
-                canvas.restoreToCount(saveCount2);
-            } else {
-                dispatchDrawInternal(canvas);
-            }
-
-            paint.setXfermode(Carbon.CLEAR_MODE);
-            if (c) {
-                cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
-                canvas.drawPath(cornersMask, paint);
-            }
-            if (r)
-                canvas.drawPath(revealAnimator.mask, paint);
-            paint.setXfermode(null);
-
-            canvas.restoreToCount(saveCount);
-        } else {
-            dispatchDrawInternal(canvas);
-        }
-        drawCalled = false;
+        delegate.dispatchDraw(canvas);
     }
 
     private void dispatchDrawInternal(@NonNull Canvas canvas) {
-        Collections.sort(getViews(), new ElevationComparator());
-
         super.dispatchDraw(canvas);
-        if (stroke != null)
-            drawStroke(canvas);
+        delegate.drawStroke(canvas);
         if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Over)
             rippleDrawable.draw(canvas);
-        if (insetColor != 0) {
-            paint.setColor(insetColor);
-            paint.setAlpha(255);
-            if (insetLeft != 0)
-                canvas.drawRect(0, 0, insetLeft, getHeight(), paint);
-            if (insetTop != 0)
-                canvas.drawRect(0, 0, getWidth(), insetTop, paint);
-            if (insetRight != 0)
-                canvas.drawRect(getWidth() - insetRight, 0, getWidth(), getHeight(), paint);
-            if (insetBottom != 0)
-                canvas.drawRect(0, getHeight() - insetBottom, getWidth(), getHeight(), paint);
-        }
+        delegate.drawInsets(canvas);
     }
 
     @Override
     protected boolean drawChild(@NonNull Canvas canvas, @NonNull View child, long drawingTime) {
-        if (child instanceof ShadowView && (!Carbon.IS_LOLLIPOP_OR_HIGHER || ((ShadowView) child).getElevationShadowColor() != null && !Carbon.IS_PIE_OR_HIGHER)) {
-            ShadowView shadowView = (ShadowView) child;
-            shadowView.drawShadow(canvas);
-        }
-
-        if (child instanceof RippleView) {
-            RippleView rippleView = (RippleView) child;
-            RippleDrawable rippleDrawable = rippleView.getRippleDrawable();
-            if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless) {
-                int saveCount = canvas.save();
-                canvas.translate(child.getLeft(), child.getTop());
-                canvas.concat(child.getMatrix());
-                rippleDrawable.draw(canvas);
-                canvas.restoreToCount(saveCount);
-            }
-        }
+        delegate.drawChildDecorations(canvas, child);
 
         return super.drawChild(canvas, child, drawingTime);
     }
 
     @Override
     protected int getChildDrawingOrder(int childCount, int child) {
-        if (views.size() != childCount)
-            getViews();
-        return indexOfChild(views.get(child));
+        return delegate.getChildDrawingOrder(childCount, child);
+    }
+
+    @Override
+    public void onViewAdded(View child) {
+        super.onViewAdded(child);
+        if (delegate != null)
+            delegate.getDrawingOrder().invalidate();
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        if (delegate != null)
+            delegate.getDrawingOrder().invalidate();
+    }
+
+    @Override
+    public ElevationDrawingOrder getElevationDrawingOrder() {
+        return delegate.getDrawingOrder();
     }
 
     protected boolean isTransformedTouchPointInView(float x, float y, View child, PointF outLocalPoint) {
@@ -347,12 +250,9 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
     // corners
     // -------------------------------
 
-    private RectF boundsRect = new RectF();
-    private Path cornersMask = new Path();
-
     @NotNull
     public ShapeAppearanceModel getShapeModel() {
-        return shapeModel;
+        return delegate.getShapeModel();
     }
 
 
@@ -363,24 +263,28 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
      */
     @Override
     public void setCornerRadius(float cornerRadius) {
-        shapeModel = ShapeAppearanceModel.builder().setAllCorners(new RoundedCornerTreatment(cornerRadius)).build();
-        setShapeModel(shapeModel);
+        setShapeModel(ShapeAppearanceModel.builder().setAllCorners(new RoundedCornerTreatment(cornerRadius)).build());
     }
 
     @Override
     public void setCornerCut(float cornerCut) {
-        shapeModel = ShapeAppearanceModel.builder().setAllCorners(new CutCornerTreatment(cornerCut)).build();
-        setShapeModel(shapeModel);
+        setShapeModel(ShapeAppearanceModel.builder().setAllCorners(new CutCornerTreatment(cornerCut)).build());
     }
 
     @Override
     public void setShapeModel(@NotNull ShapeAppearanceModel model) {
-        this.shapeModel = model;
-        shadowDrawable = new MaterialShapeDrawable(shapeModel);
-        if (getWidth() > 0 && getHeight() > 0)
-            updateCorners();
-        if (!Carbon.IS_LOLLIPOP_OR_HIGHER)
-            postInvalidate();
+        delegate.setShapeModel(model);
+    }
+
+    @NotNull
+    @Override
+    public ShapeClipMode getShapeClipMode() {
+        return delegate.getShapeClipMode();
+    }
+
+    @Override
+    public void setShapeClipMode(@NotNull ShapeClipMode shapeClipMode) {
+        delegate.setShapeClipMode(shapeClipMode);
     }
 
     @Override
@@ -393,36 +297,15 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
         if (getWidth() == 0 || getHeight() == 0)
             return;
 
-        updateCorners();
+        delegate.updateCorners();
 
         if (rippleDrawable != null)
             rippleDrawable.setBounds(0, 0, getWidth(), getHeight());
     }
 
-    private void updateCorners() {
-        if (Carbon.IS_LOLLIPOP_OR_HIGHER) {
-            setClipToOutline(true);
-            setOutlineProvider(new ViewOutlineProvider() {
-                @Override
-                public void getOutline(View view, Outline outline) {
-                    if (Carbon.isShapeRect(shapeModel, boundsRect)) {
-                        outline.setRect(0, 0, getWidth(), getHeight());
-                    } else {
-                        shadowDrawable.setBounds(0, 0, getWidth(), getHeight());
-                        shadowDrawable.getOutline(outline);
-                    }
-                }
-            });
-        }
-
-        boundsRect.set(shadowDrawable.getBounds());
-        shadowDrawable.getPathForSize(getWidth(), getHeight(), cornersMask);
-    }
-
     public void drawInternal(@NonNull Canvas canvas) {
         super.draw(canvas);
-        if (stroke != null)
-            drawStroke(canvas);
+        delegate.drawStroke(canvas);
         if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Over)
             rippleDrawable.draw(canvas);
     }
@@ -430,10 +313,6 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
     @SuppressLint("MissingSuperCall")
     @Override
     public void draw(@NonNull Canvas canvas) {
-        drawCalled = true;
-        boolean r = revealAnimator != null;
-        boolean c = !Carbon.isShapeRect(shapeModel, boundsRect);
-
         if (Carbon.IS_PIE_OR_HIGHER) {
             if (spotShadowColor != null)
                 super.setOutlineSpotShadowColor(spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()));
@@ -441,49 +320,7 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
                 super.setOutlineAmbientShadowColor(ambientShadowColor.getColorForState(getDrawableState(), ambientShadowColor.getDefaultColor()));
         }
 
-        if (isInEditMode() && (r || c) && getWidth() > 0 && getHeight() > 0) {
-            Bitmap layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas layerCanvas = new Canvas(layer);
-            drawInternal(layerCanvas);
-
-            Bitmap mask = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas maskCanvas = new Canvas(mask);
-            Paint maskPaint = new Paint(0xffffffff);
-            maskCanvas.drawPath(cornersMask, maskPaint);
-
-            for (int x = 0; x < getWidth(); x++) {
-                for (int y = 0; y < getHeight(); y++) {
-                    int maskPixel = mask.getPixel(x, y);
-                    layer.setPixel(x, y, Color.alpha(maskPixel) > 0 ? layer.getPixel(x, y) : 0);
-                }
-            }
-            canvas.drawBitmap(layer, 0, 0, paint);
-        } else if (getWidth() > 0 && getHeight() > 0 && (((r || c) && !Carbon.IS_LOLLIPOP_OR_HIGHER) || !shapeModel.isRoundRect(boundsRect))) {
-            int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
-
-            if (r) {
-                int saveCount2 = canvas.save();
-                canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
-                drawInternal(canvas);
-                canvas.restoreToCount(saveCount2);
-            } else {
-                drawInternal(canvas);
-            }
-
-            paint.setXfermode(Carbon.CLEAR_MODE);
-            if (c) {
-                cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
-                canvas.drawPath(cornersMask, paint);
-            }
-            if (r)
-                canvas.drawPath(revealAnimator.mask, paint);
-            paint.setXfermode(null);
-
-            canvas.restoreToCount(saveCount);
-            paint.setXfermode(null);
-        } else {
-            drawInternal(canvas);
-        }
+        delegate.draw(canvas);
     }
 
 
@@ -495,7 +332,7 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
 
     @Override
     public boolean dispatchTouchEvent(@NonNull MotionEvent event) {
-        if (shadowDrawable.isPointInTransparentRegion((int) event.getX(), (int) event.getY()))
+        if (delegate.isPointInTransparentRegion((int) event.getX(), (int) event.getY()))
             return false;
         if (onDispatchTouchListener != null && onDispatchTouchListener.onTouch(this, event))
             return true;
@@ -560,14 +397,8 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
     }
 
     private void invalidateParentIfNeeded() {
-        if (getParent() == null || !(getParent() instanceof View))
-            return;
-
-        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless)
-            ((View) getParent()).invalidate();
-
-        if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect))
-            ((View) getParent()).invalidate();
+        if (delegate != null)
+            delegate.invalidateParentIfNeeded();
     }
 
     @Override
@@ -583,14 +414,8 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
     }
 
     private void postInvalidateParentIfNeededDelayed(long delayMilliseconds) {
-        if (getParent() == null || !(getParent() instanceof View))
-            return;
-
-        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless)
-            ((View) getParent()).postInvalidateDelayed(delayMilliseconds);
-
-        if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect))
-            ((View) getParent()).postInvalidateDelayed(delayMilliseconds);
+        if (delegate != null)
+            delegate.postInvalidateParentIfNeededDelayed(delayMilliseconds);
     }
 
     @Override
@@ -619,8 +444,6 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
 
     private float elevation = 0;
     private float translationZ = 0;
-    private ShapeAppearanceModel shapeModel = new ShapeAppearanceModel();
-    private MaterialShapeDrawable shadowDrawable = new MaterialShapeDrawable(shapeModel);
     private ColorStateList ambientShadowColor, spotShadowColor;
 
     @Override
@@ -644,6 +467,8 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
         } else if (elevation != this.elevation && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        if (elevation != this.elevation)
+            ElevationDrawingOrder.onElevationChanged(this);
         this.elevation = elevation;
     }
 
@@ -666,6 +491,7 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
         } else if (translationZ != this.translationZ && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        ElevationDrawingOrder.onElevationChanged(this);
         this.translationZ = translationZ;
     }
 
@@ -681,52 +507,7 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
 
     @Override
     public void drawShadow(@NotNull Canvas canvas) {
-        float alpha = getAlpha() * Carbon.getBackgroundTintAlpha(this) / 255.0f;
-        if (alpha == 0 || !hasShadow())
-            return;
-
-        float z = getElevation() + getTranslationZ();
-
-        int saveCount;
-        boolean maskShadow = getBackground() != null && alpha != 1;
-        boolean r = revealAnimator != null && revealAnimator.isRunning();
-
-        if (alpha != 255) {
-            paint.setAlpha((int) (127 * alpha));
-            saveCount = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), paint, Canvas.ALL_SAVE_FLAG);
-        } else {
-            saveCount = canvas.save();
-        }
-        Matrix matrix = getMatrix();
-        canvas.setMatrix(matrix);
-
-        if (r) {
-            canvas.clipRect(
-                    getLeft() + revealAnimator.x - revealAnimator.radius, getTop() + revealAnimator.y - revealAnimator.radius,
-                    getLeft() + revealAnimator.x + revealAnimator.radius, getTop() + revealAnimator.y + revealAnimator.radius);
-        }
-
-        shadowDrawable.setFillColor(spotShadowColor);
-        shadowDrawable.setShadowColor(spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000);
-        shadowDrawable.setAlpha(0x44);
-        shadowDrawable.setElevation(z);
-        shadowDrawable.setShadowVerticalOffset(0);
-        shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
-        shadowDrawable.draw(canvas);
-
-        canvas.translate(this.getLeft(), this.getTop());
-        canvas.concat(matrix);
-        paint.setXfermode(Carbon.CLEAR_MODE);
-        if (maskShadow) {
-            cornersMask.setFillType(Path.FillType.WINDING);
-            canvas.drawPath(cornersMask, paint);
-        }
-        if (r)
-            canvas.drawPath(revealAnimator.mask, paint);
-
-        canvas.restoreToCount(saveCount);
-        paint.setXfermode(null);
-        paint.setAlpha(255);
+        delegate.drawShadow(canvas, spotShadowColor);
     }
 
     @Override
@@ -1052,136 +833,35 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
     }
 
     public Component findComponentById(int id) {
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getView().getId() == id)
-                    return ((ComponentView) child).getComponent();
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return null;
+        return delegate.findComponentById(id);
     }
 
     public List<Component> findComponentsById(int id) {
-        List<Component> result = new ArrayList<>();
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getView().getId() == id)
-                    result.add(((ComponentView) child).getComponent());
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return result;
+        return delegate.findComponentsById(id);
     }
 
     public Component findComponentOfType(Class type) {
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getClass().equals(type))
-                    return ((ComponentView) child).getComponent();
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return null;
+        return delegate.findComponentOfType(type);
     }
 
     public List<Component> findComponentsOfType(Class type) {
-        List<Component> result = new ArrayList<>();
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getClass().equals(type))
-                    result.add(((ComponentView) child).getComponent());
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return result;
+        return delegate.findComponentsOfType(type);
     }
 
     public <Type extends View> Type findViewOfType(Class<Type> type) {
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (child.getClass().equals(type))
-                    return (Type) child;
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return null;
+        return delegate.findViewOfType(type);
     }
 
     public <Type extends View> List<Type> findViewsOfType(Class<Type> type) {
-        List<Type> result = new ArrayList<>();
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (child.getClass().equals(type))
-                    result.add((Type) child);
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return result;
+        return delegate.findViewsOfType(type);
     }
 
     public List<View> findViewsById(int id) {
-        List<View> result = new ArrayList<>();
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (child.getId() == id)
-                    result.add(child);
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return result;
+        return delegate.findViewsById(id);
     }
 
     public List<View> findViewsWithTag(Object tag) {
-        List<View> result = new ArrayList<>();
-        List<ViewGroup> groups = new ArrayList<>();
-        groups.add(this);
-        while (!groups.isEmpty()) {
-            ViewGroup group = groups.remove(0);
-            for (int i = 0; i < group.getChildCount(); i++) {
-                View child = group.getChildAt(i);
-                if (tag.equals(child.getTag()))
-                    result.add(child);
-                if (child instanceof ViewGroup)
-                    groups.add((ViewGroup) child);
-            }
-        }
-        return result;
+        return delegate.findViewsWithTag(tag);
     }
 
 
@@ -1189,28 +869,9 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
     // stroke
     // -------------------------------
 
-    private ColorStateList stroke;
-    private float strokeWidth;
-    private Paint strokePaint;
-
-    private void drawStroke(Canvas canvas) {
-        strokePaint.setStrokeWidth(strokeWidth * 2);
-        strokePaint.setColor(stroke.getColorForState(getDrawableState(), stroke.getDefaultColor()));
-        cornersMask.setFillType(Path.FillType.WINDING);
-        canvas.drawPath(cornersMask, strokePaint);
-    }
-
     @Override
     public void setStroke(ColorStateList colorStateList) {
-        stroke = colorStateList;
-
-        if (stroke == null)
-            return;
-
-        if (strokePaint == null) {
-            strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-            strokePaint.setStyle(Paint.Style.STROKE);
-        }
+        delegate.setStroke(colorStateList);
     }
 
     @Override
@@ -1220,17 +881,17 @@ public class CollapsingToolbarLayout extends com.google.android.material.appbar.
 
     @Override
     public ColorStateList getStroke() {
-        return stroke;
+        return delegate.getStroke();
     }
 
     @Override
     public void setStrokeWidth(float strokeWidth) {
-        this.strokeWidth = strokeWidth;
+        delegate.setStrokeWidth(strokeWidth);
     }
 
     @Override
     public float getStrokeWidth() {
-        return strokeWidth;
+        return delegate.getStrokeWidth();
     }
 
 
@@ -57,6 +57,16 @@ public class TableLayout extends LinearLayout {
         return footer;
     }
 
+    /**
+     * In {@link TableView.RowMode#Canvas} mode column names are drawn by the table, so they can
+     * scroll with the columns.
+     */
+    public void setRowMode(TableView.RowMode rowMode) {
+        table.setRowMode(rowMode);
+        table.setHeaderEnabled(rowMode == TableView.RowMode.Canvas);
+        header.setVisibility(rowMode == TableView.RowMode.Canvas ? GONE : VISIBLE);
+    }
+
     public void setAdapter(TableView.Adapter adapter) {
         table.setAdapter(adapter);
         header.removeAllViews();
@@ -43,6 +43,12 @@ public class TransformationLayout extends FrameLayout implements OnGestureListen
         detector.addOnGestureListener(this);
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        detector.recycle();
+    }
+
     @Override
     public boolean onInterceptTouchEvent(MotionEvent event) {
         if (detector.shouldInterceptEvents(event)) {
@@ -90,6 +96,6 @@ public class TransformationLayout extends FrameLayout implements OnGestureListen
         TransformedLayout child = (TransformedLayout) getChildAt(0);
         matrix.postConcat(dm);
         child.setMatrix(matrix);
-        child.postInvalidate();
+        child.invalidate();
     }
 }
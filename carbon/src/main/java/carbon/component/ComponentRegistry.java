@@ -0,0 +1,75 @@
+package carbon.component;
+
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
+
+import carbon.recycler.RowFactory;
+
+/**
+ * Maps component type names used by {@link ComponentView} to factories, so components can be
+ * created without reflection. Nothing is registered by default, so the shrinker can remove
+ * components the app doesn't use. Components should be registered before inflating layouts using
+ * them, for example in Application.onCreate(), either by hand or with a registry generated for
+ * classes annotated with {@link RegisterComponents}. Types without a factory are created through
+ * their (ViewGroup) constructor, which is looked up only once per type.
+ */
+public class ComponentRegistry {
+
+    private static final Map<String, RowFactory<?>> factories = new HashMap<>();
+    private static final Map<String, Constructor<?>> constructors = new HashMap<>();
+
+    private ComponentRegistry() {
+    }
+
+    /**
+     * @param type    fully qualified class name, the same as used in carbon:carbon_type
+     * @param factory creates components of that type
+     */
+    public static synchronized <Type> void register(@NonNull String type, @NonNull RowFactory<Type> factory) {
+        factories.put(type, factory);
+    }
+
+    /**
+     * @param type    component class
+     * @param factory creates components of that type
+     */
+    public static synchronized <Type> void register(@NonNull Class<?> type, @NonNull RowFactory<Type> factory) {
+        factories.put(type.getName(), factory);
+    }
+
+    public static synchronized void unregister(@NonNull String type) {
+        factories.remove(type);
+    }
+
+    @Nullable
+    public static synchronized RowFactory<?> getFactory(@NonNull String type) {
+        return factories.get(type);
+    }
+
+    /**
+     * Creates a component of the given type using its registered factory or its (ViewGroup)
+     * constructor.
+     */
+    public static Component<?> create(@NonNull String type, @NonNull ViewGroup parent) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InstantiationException, InvocationTargetException {
+        RowFactory<?> factory;
+        Constructor<?> constructor;
+        synchronized (ComponentRegistry.class) {
+            factory = factories.get(type);
+            constructor = constructors.get(type);
+            if (factory == null && constructor == null) {
+                constructor = Class.forName(type).getConstructor(ViewGroup.class);
+                constructors.put(type, constructor);
+            }
+        }
+        if (factory != null)
+            return factory.create(parent);
+        return (Component<?>) constructor.newInstance(parent);
+    }
+}
@@ -6,10 +6,8 @@ import android.content.res.TypedArray;
 import android.os.Build;
 import android.util.AttributeSet;
 import android.view.View;
-import android.view.ViewGroup;
 import android.widget.FrameLayout;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 
 import carbon.R;
@@ -47,8 +45,7 @@ public class ComponentView extends FrameLayout {
                     component = new DataBindingComponent(this, layout);
                 }
             } else if (type != null) {
-                Constructor<?> constructor = Class.forName(type).getConstructor(ViewGroup.class);
-                component = (Component) constructor.newInstance(this);
+                component = ComponentRegistry.create(type, this);
             }
             if (component != null) {
                 View view = component.getView();
@@ -0,0 +1,30 @@
+package carbon.component;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lists components used by an app's layouts. For a class annotated with this annotation,
+ * carbon-processor generates a class named after it with a "Components" suffix, in the same
+ * package. Its static register() method registers a factory for each listed component in
+ * {@link ComponentRegistry}, so these components are created without reflection and other
+ * components can be removed by the shrinker. register() should be called before inflating
+ * layouts, for example in Application.onCreate(). The processor has to be added to the app's
+ * build, for example with kapt project(':carbon-processor').
+ * <pre>
+ * &#64;RegisterComponents({TextRow.class, DividerRow.class})
+ * public class App extends Application {
+ *     public void onCreate() {
+ *         super.onCreate();
+ *         AppComponents.register();
+ *     }
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface RegisterComponents {
+    Class<? extends Component>[] value();
+}
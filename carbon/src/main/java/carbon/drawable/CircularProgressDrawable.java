@@ -20,6 +20,7 @@ public class CircularProgressDrawable extends ProgressDrawable implements TintAw
     private long angleDuration = DEFAULT_ANGLE_DURATION;
     Interpolator interpolator2 = new DecelerateInterpolator();
     Interpolator interpolator = new AccelerateDecelerateInterpolator();
+    private RectF boundsF = new RectF();
 
     public CircularProgressDrawable() {
         forePaint.setStyle(Paint.Style.STROKE);
@@ -40,23 +41,24 @@ public class CircularProgressDrawable extends ProgressDrawable implements TintAw
     public void draw(Canvas canvas) {
         Rect bounds = getBounds();
         forePaint.setStrokeWidth(width);
-        RectF boundsF = new RectF(bounds);
+        boundsF.set(bounds);
         boundsF.inset(width / 2 + barPadding + 0.1f, width / 2 + barPadding + 0.1f);
 
+        long time = getAnimationTime();
         if (style != ProgressView.Style.CircularDeterminate) {
-            long time = System.currentTimeMillis() - startTime;
             float t = (float) (time % angleDuration) / angleDuration;
             float t2 = (float) (time % sweepDuration) / sweepDuration;
             float bar = Math.min((t - t2 + 1) % 1, (t2 - t + 1) % 1);
             bar = interpolator.getInterpolation(bar) * 2 * 300 + 30;
 
             canvas.drawArc(boundsF, (t * 360 - bar / 2 + 360) % 360, bar, false, forePaint);
+            scheduleNextFrame();
         } else {
-            long time = System.currentTimeMillis() - startTime;
             float t = Math.min((float) time / angleDuration, 1);
 
             canvas.drawArc(boundsF, interpolator2.getInterpolation(t) * 360 - 90, progress * 360, false, forePaint);
+            if (t < 1)
+                scheduleNextFrame();
         }
-        invalidateSelf();
     }
 }
@@ -34,21 +34,21 @@ public class ProgressBarDrawable extends ProgressDrawable {
         Rect bounds = getBounds();
 
         if (style == ProgressView.Style.BarIndeterminate) {
-            long time = (System.currentTimeMillis() - startTime) % (sweepDuration + sweepDelay);
+            long time = getAnimationTime() % (sweepDuration + sweepDelay);
             float t = (float) (time) / (sweepDuration);
             float t2 = Math.max(0, (float) (time - sweepDelay) / sweepDuration);
             float end = interpolator.getInterpolation(t2);
             canvas.drawRect(end * bounds.width(), getBarPadding(), t * bounds.width(), bounds.height(), forePaint);
+            scheduleNextFrame();
         } else if (style == ProgressView.Style.BarQuery) {
-            long time = (System.currentTimeMillis() - startTime) % (sweepDuration + sweepDelay);
+            long time = getAnimationTime() % (sweepDuration + sweepDelay);
             float t = 1 - (float) (time) / (sweepDuration);
             float t2 = Math.max(0, (float) (time - sweepDelay) / sweepDuration);
             float end = 1 - interpolator.getInterpolation(t2);
             canvas.drawRect(t * bounds.width(), getBarPadding(), end * bounds.width(), bounds.height(), forePaint);
+            scheduleNextFrame();
         } else {
             canvas.drawRect(0, getBarPadding(), progress * bounds.width(), bounds.height(), forePaint);
         }
-
-        invalidateSelf();
     }
 }
@@ -8,17 +8,30 @@ import android.graphics.PixelFormat;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffColorFilter;
 import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.view.animation.AnimationUtils;
 
 import androidx.annotation.NonNull;
 
 import carbon.widget.ProgressView;
 
+/**
+ * Base class of progress drawables. Animated drawables redraw on the animation frame clock only
+ * while they are visible - hosts should hide the drawable using {@link #setVisible(boolean, boolean)}
+ * when it can't be seen, like {@link ProgressView} does when detached or hidden.
+ */
 public abstract class ProgressDrawable extends Drawable {
     private static final long DEFAULT_SWEEP_DURATION = 800;
     private static final long DEFAULT_SWEEP_OFFSET = 500;
     private long sweepDuration = DEFAULT_SWEEP_DURATION;
     private long sweepDelay = DEFAULT_SWEEP_OFFSET;
-    final long startTime = System.currentTimeMillis();
+    final long startTime = AnimationUtils.currentAnimationTimeMillis();
+
+    private boolean frameScheduled = false;
+    private final Runnable frameRunnable = () -> {
+        frameScheduled = false;
+        invalidateSelf();
+    };
 
     Paint forePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private ColorStateList tint = ColorStateList.valueOf(Color.RED);
@@ -30,14 +43,46 @@ public abstract class ProgressDrawable extends Drawable {
 
     ProgressView.Style style;
 
+    /**
+     * @return current time of the animation frame clock
+     */
+    long getAnimationTime() {
+        return AnimationUtils.currentAnimationTimeMillis() - startTime;
+    }
+
+    /**
+     * Requests drawing of the next animation frame. Frames are scheduled through the drawable's
+     * callback, which is driven by the frame clock of the host view's window.
+     */
+    void scheduleNextFrame() {
+        if (frameScheduled || !isVisible())
+            return;
+        frameScheduled = true;
+        scheduleSelf(frameRunnable, SystemClock.uptimeMillis());
+    }
+
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        boolean changed = super.setVisible(visible, restart);
+        if (!visible) {
+            unscheduleSelf(frameRunnable);
+            frameScheduled = false;
+        } else if (changed) {
+            invalidateSelf();
+        }
+        return changed;
+    }
+
     @Override
     public void setAlpha(int alpha) {
         forePaint.setAlpha(alpha);
+        invalidateSelf();
     }
 
     @Override
     public void setColorFilter(ColorFilter cf) {
         forePaint.setColorFilter(cf);
+        invalidateSelf();
     }
 
     @Override
@@ -52,6 +97,7 @@ public abstract class ProgressDrawable extends Drawable {
 
     public void setProgress(float progress) {
         this.progress = Math.max(0, Math.min(progress, 1));
+        invalidateSelf();
     }
 
     public float getProgress() {
@@ -80,6 +126,7 @@ public abstract class ProgressDrawable extends Drawable {
 
     public void setBarWidth(float width) {
         this.width = width;
+        invalidateSelf();
     }
 
     public ProgressView.Style getStyle() {
@@ -88,6 +135,7 @@ public abstract class ProgressDrawable extends Drawable {
 
     public void setStyle(ProgressView.Style style) {
         this.style = style;
+        invalidateSelf();
     }
 
     public float getBarPadding() {
@@ -96,6 +144,7 @@ public abstract class ProgressDrawable extends Drawable {
 
     public void setBarPadding(float barPadding) {
         this.barPadding = barPadding;
+        invalidateSelf();
     }
 
     @Override
@@ -10,7 +10,6 @@ import android.graphics.PixelFormat;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffColorFilter;
 import android.graphics.drawable.Drawable;
-import android.util.SparseArray;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -19,18 +18,65 @@ import androidx.core.graphics.drawable.TintAwareDrawable;
 import com.caverock.androidsvg.SVG;
 import com.caverock.androidsvg.SVGParseException;
 
+import java.util.concurrent.Executor;
+
+import carbon.internal.VectorCache;
+
 public class VectorDrawable extends Drawable implements AlphaDrawable, TintAwareDrawable {
     private VectorState state;
     private Bitmap bitmap;
 
-    private static SparseArray<SVG> cache = new SparseArray<>();
-
+    /**
+     * Clears parsed SVGs and renderings shared by all vector drawables.
+     */
     public static void clearCache() {
-        cache.clear();
+        VectorCache.clear();
+    }
+
+    /**
+     * Parses SVGs on the given executor, so drawables created later don't have to parse them on
+     * the main thread.
+     */
+    public static void preload(@NonNull Resources res, @NonNull int[] resIds, @NonNull Executor executor) {
+        preload(res, resIds, executor, false);
+    }
+
+    /**
+     * Parses SVGs on the given executor. If {@code rasterize} is true, the SVGs are also rendered
+     * at their intrinsic size, which is the size used by image views not scaling their images.
+     */
+    public static void preload(@NonNull Resources res, @NonNull int[] resIds, @NonNull Executor executor, boolean rasterize) {
+        for (int resId : resIds)
+            executor.execute(() -> preload(res, resId, rasterize));
+    }
+
+    /**
+     * Parses an SVG and optionally renders it at its intrinsic size on the calling thread.
+     *
+     * @return true if the SVG was loaded
+     */
+    public static boolean preload(@NonNull Resources res, int resId, boolean rasterize) {
+        try {
+            SVG svg = VectorCache.getSvg(res, resId);
+            if (rasterize) {
+                float density = res.getDisplayMetrics().density;
+                int intWidth = (int) (svg.getDocumentViewBox().width() * density);
+                int intHeight = (int) (svg.getDocumentViewBox().height() * density);
+                if (intWidth > 0 && intHeight > 0)
+                    VectorCache.getBitmap(resId, svg, intWidth, intHeight, density);
+            }
+            return true;
+        } catch (SVGParseException e) {
+            return false;
+        }
     }
 
     public VectorDrawable(SVG svg, int intWidth, int intHeight) {
-        state = new VectorState(svg, intWidth, intHeight);
+        this(svg, 0, 0, intWidth, intHeight);
+    }
+
+    private VectorDrawable(SVG svg, int resId, float density, int intWidth, int intHeight) {
+        state = new VectorState(svg, resId, density, intWidth, intHeight);
         setBounds(0, 0, state.intWidth, state.intHeight);
     }
 
@@ -38,11 +84,7 @@ public class VectorDrawable extends Drawable implements AlphaDrawable, TintAware
         if (resId == 0)
             return;
         try {
-            SVG svg = cache.get(resId);
-            if (svg == null) {
-                svg = SVG.getFromResource(res, resId);
-                cache.put(resId, svg);
-            }
+            SVG svg = VectorCache.getSvg(res, resId);
             float density = res.getDisplayMetrics().density;
 
             float width = svg.getDocumentViewBox().width();
@@ -50,7 +92,7 @@ public class VectorDrawable extends Drawable implements AlphaDrawable, TintAware
 
             int intWidth = (int) (width * density);
             int intHeight = (int) (height * density);
-            state = new VectorState(svg, intWidth, intHeight);
+            state = new VectorState(svg, resId, density, intWidth, intHeight);
             setBounds(0, 0, state.intWidth, state.intHeight);
         } catch (SVGParseException e) {
 
@@ -63,8 +105,6 @@ public class VectorDrawable extends Drawable implements AlphaDrawable, TintAware
         int height = bottom - top;
         if (state.svg == null || width == 0 || height == 0 || (bitmap != null && bitmap.getWidth() == width && bitmap.getHeight() == height))
             return;
-        state.svg.setDocumentWidth(width);
-        state.svg.setDocumentHeight(height);
         bitmap = null;
         super.setBounds(left, top, right, bottom);
     }
@@ -76,10 +116,9 @@ public class VectorDrawable extends Drawable implements AlphaDrawable, TintAware
         if (width <= 0 || height <= 0)
             return;
 
-        if (bitmap == null) {
-            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-            state.svg.renderToCanvas(new Canvas(bitmap));
-        }
+        // the bitmap is shared with other drawables of the same icon and size, the tint is applied when drawing
+        if (bitmap == null)
+            bitmap = VectorCache.getBitmap(state.resId, state.svg, width, height, state.density);
 
         updateTint();
 
@@ -165,25 +204,31 @@ public class VectorDrawable extends Drawable implements AlphaDrawable, TintAware
     @NonNull
     @Override
     public Drawable mutate() {
-        return new VectorDrawable(state.svg, state.intWidth, state.intHeight);
+        return new VectorDrawable(state.svg, state.resId, state.density, state.intWidth, state.intHeight);
     }
 
     private class VectorState extends ConstantState {
         SVG svg;
+        int resId;
+        float density;
         private Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG | Paint.ANTI_ALIAS_FLAG);
         int intWidth, intHeight;
         public ColorFilter colorFilter;
         public ColorStateList tint;
         public PorterDuff.Mode tintMode = PorterDuff.Mode.SRC_IN;
 
-        public VectorState(SVG svg, int intWidth, int intHeight) {
+        public VectorState(SVG svg, int resId, float density, int intWidth, int intHeight) {
             this.svg = svg;
+            this.resId = resId;
+            this.density = density;
             this.intWidth = intWidth;
             this.intHeight = intHeight;
         }
 
         public VectorState(VectorState state) {
             svg = state.svg;
+            resId = state.resId;
+            density = state.density;
             intWidth = state.intWidth;
             intHeight = state.intHeight;
             paint = state.paint;
@@ -195,7 +240,7 @@ public class VectorDrawable extends Drawable implements AlphaDrawable, TintAware
         @NonNull
         @Override
         public Drawable newDrawable() {
-            return new VectorDrawable(svg, intWidth, intHeight);
+            return new VectorDrawable(svg, resId, density, intWidth, intHeight);
         }
 
         @Override
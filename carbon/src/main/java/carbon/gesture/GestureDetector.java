@@ -3,12 +3,20 @@ package carbon.gesture;
 import android.content.Context;
 import android.os.Handler;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.ViewConfiguration;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import carbon.R;
 
+/**
+ * Doesn't allocate while handling events. Events passed to listeners are valid only for the
+ * duration of the callback - listeners shouldn't keep references to them. Batched historical
+ * samples of move events are delivered as separate drag and transform steps, so fast gestures
+ * follow the fingers' path.
+ */
 public class GestureDetector {
 
     private static final int DEFAULT_PRESS_TIMEOUT = 100;
@@ -19,11 +27,18 @@ public class GestureDetector {
     private long longPressTimeout = DEFAULT_LONGPRESS_TIMEOUT;
     private int tapTimeout = DEFAULT_TAP_TIMEOUT;
     private int moveEpsilon;
+    private int minFlingVelocity;
+    private int maxFlingVelocity;
 
     private Handler handler = new Handler();
-    private Runnable pressHandler;
-    private Runnable longPressHandler;
-    private Runnable tapHandler;
+    private boolean pressPending;
+    private final Runnable pressHandler = () -> firePressEvent(downEvent);
+    private final Runnable longPressHandler = () -> fireLongPressEvent(downEvent);
+    private final Runnable tapHandler = () -> clicks = 0;
+
+    // copy of the last down event for delayed callbacks, recycled on the next down event
+    private MotionEvent downEvent;
+    private VelocityTracker velocityTracker;
 
     private float prevTouchY, startTouchX;
     private float prevTouchX, startTouchY;
@@ -35,6 +50,9 @@ public class GestureDetector {
 
     public GestureDetector(Context context) {
         moveEpsilon = context.getResources().getDimensionPixelSize(R.dimen.carbon_moveEpsilon);
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
     }
 
     private List<OnGestureListener> listeners = new ArrayList<>();
@@ -70,7 +88,7 @@ public class GestureDetector {
                     if (!moving) {
                         float dx = event.getX() - startTouchX;
                         float dy = event.getY() - startTouchY;
-                        if (Math.sqrt(dx * dx + dy * dy) > moveEpsilon)
+                        if (dx * dx + dy * dy > moveEpsilon * moveEpsilon)
                             return true;
                     } else {
                         return true;
@@ -81,25 +99,46 @@ public class GestureDetector {
         return false;
     }
 
-    public boolean onTouchEvent(final MotionEvent motionEvent) {
-        final MotionEvent event = MotionEvent.obtain(motionEvent);
-        handler.removeCallbacks(longPressHandler);
-        longPressHandler = null;
+    public boolean onTouchEvent(MotionEvent event) {
+        cancelLongPress();
 
-        if (motionEvent.getPointerCount() == 1) {
+        if (velocityTracker == null)
+            velocityTracker = VelocityTracker.obtain();
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN)
+            velocityTracker.clear();
+        velocityTracker.addMovement(event);
+
+        if (event.getPointerCount() == 1) {
             transforming = false;
             handleSinglePointer(event);
-        } else if (motionEvent.getPointerCount() == 2) {
+        } else if (event.getPointerCount() == 2) {
             handleTwoPointers(event);
-        } else {
         }
 
-        prevTouchX = motionEvent.getX();
-        prevTouchY = motionEvent.getY();
+        prevTouchX = event.getX();
+        prevTouchY = event.getY();
 
         return moving;
     }
 
+    /**
+     * Releases the velocity tracker and the copy of the last down event. The detector can still be
+     * used afterwards.
+     */
+    public void recycle() {
+        cancelPress();
+        cancelLongPress();
+        cancelTap();
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
+        if (downEvent != null) {
+            downEvent.recycle();
+            downEvent = null;
+        }
+    }
+
     private void handleSinglePointer(MotionEvent event) {
         switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
@@ -109,20 +148,22 @@ public class GestureDetector {
                 startTouchY = event.getY();
 
                 clicks++;
-                handler.removeCallbacks(tapHandler);
-                tapHandler = null;
+                cancelTap();
+                cancelPress();
+
+                if (downEvent != null)
+                    downEvent.recycle();
+                downEvent = MotionEvent.obtain(event);
 
-                pressHandler = () -> firePressEvent(event);
+                pressPending = true;
                 handler.postDelayed(pressHandler, pressTimeout);
 
-                longPressHandler = () -> fireLongPressEvent(event);
-                handler.removeCallbacks(longPressHandler);
                 handler.postDelayed(longPressHandler, longPressTimeout);
 
                 break;
 
             case MotionEvent.ACTION_UP:
-                if (pressed && pressHandler != null) {
+                if (pressed && pressPending) {
                     handler.removeCallbacks(pressHandler);
                     pressHandler.run();
                 }
@@ -130,13 +171,17 @@ public class GestureDetector {
                 if (clicks > 0) {
                     fireTapEvent(event, clicks);
 
-                    tapHandler = () -> {
-                        tapHandler = null;
-                        clicks = 0;
-                    };
                     handler.postDelayed(tapHandler, tapTimeout);
                 }
 
+                if (pressed && moving) {
+                    velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                    float velocityX = velocityTracker.getXVelocity();
+                    float velocityY = velocityTracker.getYVelocity();
+                    if (velocityX * velocityX + velocityY * velocityY > minFlingVelocity * minFlingVelocity)
+                        fireFlingEvent(event, velocityX, velocityY);
+                }
+
                 pressed = false;
                 break;
 
@@ -145,18 +190,23 @@ public class GestureDetector {
                     if (!moving) {
                         float dx = event.getX() - startTouchX;
                         float dy = event.getY() - startTouchY;
-                        if (Math.sqrt(dx * dx + dy * dy) > moveEpsilon) {
-                            handler.removeCallbacks(tapHandler);
-                            tapHandler = null;
-                            handler.removeCallbacks(pressHandler);
-                            pressHandler = null;
-                            handler.removeCallbacks(longPressHandler);
-                            longPressHandler = null;
+                        if (dx * dx + dy * dy > moveEpsilon * moveEpsilon) {
+                            cancelTap();
+                            cancelPress();
+                            cancelLongPress();
                             moving = true;
                             fireDragEvent(event, dx, dy);
                         }
                     } else {
-                        fireDragEvent(event, event.getX() - prevTouchX, event.getY() - prevTouchY);
+                        float x = prevTouchX, y = prevTouchY;
+                        for (int h = 0; h < event.getHistorySize(); h++) {
+                            float hx = event.getHistoricalX(h);
+                            float hy = event.getHistoricalY(h);
+                            fireDragEvent(event, hx - x, hy - y);
+                            x = hx;
+                            y = hy;
+                        }
+                        fireDragEvent(event, event.getX() - x, event.getY() - y);
                     }
                 }
                 break;
@@ -164,12 +214,9 @@ public class GestureDetector {
             case MotionEvent.ACTION_CANCEL:
                 pressed = false;
                 moving = false;
-                handler.removeCallbacks(pressHandler);
-                pressHandler = null;
-                handler.removeCallbacks(tapHandler);
-                tapHandler = null;
-                handler.removeCallbacks(longPressHandler);
-                longPressHandler = null;
+                cancelPress();
+                cancelTap();
+                cancelLongPress();
                 clicks = 0;
         }
     }
@@ -183,69 +230,89 @@ public class GestureDetector {
             case MotionEvent.ACTION_MOVE:
                 if (!transforming) {
                     transforming = true;
-                    handler.removeCallbacks(pressHandler);
-                    pressHandler = null;
-                    handler.removeCallbacks(longPressHandler);
-                    longPressHandler = null;
-                    handler.removeCallbacks(tapHandler);
-                    tapHandler = null;
-
-                    prevRotation = (float) Math.atan2(event.getY(0) - event.getY(1), event.getX(0) - event.getX(1));
-                    prevDist = (float) Math.sqrt(Math.pow(event.getX(0) - event.getX(1), 2) +
-                            Math.pow(event.getY(0) - event.getY(1), 2));
-                    prevCenterX = (event.getX(0) + event.getX(1)) / 2;
-                    prevCenterY = (event.getY(0) + event.getY(1)) / 2;
+                    cancelPress();
+                    cancelLongPress();
+                    cancelTap();
+
+                    float x0 = event.getX(0), y0 = event.getY(0), x1 = event.getX(1), y1 = event.getY(1);
+                    prevRotation = (float) Math.atan2(y0 - y1, x0 - x1);
+                    prevDist = (float) Math.sqrt((x0 - x1) * (x0 - x1) + (y0 - y1) * (y0 - y1));
+                    prevCenterX = (x0 + x1) / 2;
+                    prevCenterY = (y0 + y1) / 2;
                 } else {
-                    float dist = (float) Math.sqrt(Math.pow(event.getX(0) - event.getX(1), 2) +
-                            Math.pow(event.getY(0) - event.getY(1), 2));
-                    float cx = (event.getX(0) + event.getX(1)) / 2;
-                    float cy = (event.getY(0) + event.getY(1)) / 2;
-                    float dx = cx - prevCenterX;
-                    float dy = cy - prevCenterY;
-
-                    float rotation = (float) Math.atan2(event.getY(0) - event.getY(1), event.getX(0) - event.getX(1));
-                    float scale = dist / prevDist;
-                    float rx = rotation - prevRotation;
-
-                    fireTransformEvent(event, cx, cy, dx, dy, rx, scale);
-
-                    prevCenterX = cx;
-                    prevCenterY = cy;
-                    prevRotation = rotation;
-                    prevDist = dist;
+                    for (int h = 0; h < event.getHistorySize(); h++) {
+                        transform(event, event.getHistoricalX(0, h), event.getHistoricalY(0, h),
+                                event.getHistoricalX(1, h), event.getHistoricalY(1, h));
+                    }
+                    transform(event, event.getX(0), event.getY(0), event.getX(1), event.getY(1));
                 }
                 break;
         }
     }
 
+    private void transform(MotionEvent event, float x0, float y0, float x1, float y1) {
+        float dist = (float) Math.sqrt((x0 - x1) * (x0 - x1) + (y0 - y1) * (y0 - y1));
+        float cx = (x0 + x1) / 2;
+        float cy = (y0 + y1) / 2;
+        float dx = cx - prevCenterX;
+        float dy = cy - prevCenterY;
+
+        float rotation = (float) Math.atan2(y0 - y1, x0 - x1);
+        float scale = dist / prevDist;
+        float rx = rotation - prevRotation;
+
+        fireTransformEvent(event, cx, cy, dx, dy, rx, scale);
+
+        prevCenterX = cx;
+        prevCenterY = cy;
+        prevRotation = rotation;
+        prevDist = dist;
+    }
+
+    private void cancelPress() {
+        handler.removeCallbacks(pressHandler);
+        pressPending = false;
+    }
+
+    private void cancelLongPress() {
+        handler.removeCallbacks(longPressHandler);
+    }
+
+    private void cancelTap() {
+        handler.removeCallbacks(tapHandler);
+    }
+
     private void fireTransformEvent(MotionEvent motionEvent, float cx, float cy, float dx, float dy, float rx, float scale) {
-        for (OnGestureListener listener : listeners)
-            listener.onTransform(motionEvent, cx, cy, dx, dy, rx, scale);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onTransform(motionEvent, cx, cy, dx, dy, rx, scale);
     }
 
     private void fireDragEvent(MotionEvent motionEvent, float translationX, float translationY) {
         clicks = 0;
-        for (OnGestureListener listener : listeners)
-            listener.onDrag(motionEvent, translationX, translationY);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onDrag(motionEvent, translationX, translationY);
+    }
+
+    private void fireFlingEvent(MotionEvent motionEvent, float velocityX, float velocityY) {
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onFling(motionEvent, velocityX, velocityY);
     }
 
     private void fireTapEvent(MotionEvent motionEvent, int clicks) {
-        tapHandler = null;
-        for (OnGestureListener listener : listeners)
-            listener.onTap(motionEvent, clicks);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onTap(motionEvent, clicks);
     }
 
     private void fireLongPressEvent(MotionEvent motionEvent) {
         clicks = 0;
-        longPressHandler = null;
-        for (OnGestureListener listener : listeners)
-            listener.onLongPress(motionEvent);
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onLongPress(motionEvent);
     }
 
     private void firePressEvent(MotionEvent motionEvent) {
-        pressHandler = null;
-        for (OnGestureListener listener : listeners)
-            listener.onPress(motionEvent);
+        pressPending = false;
+        for (int i = 0; i < listeners.size(); i++)
+            listeners.get(i).onPress(motionEvent);
     }
 
     public int getPressTimeout() {
@@ -24,4 +24,8 @@ public class OnGestureAdapter implements OnGestureListener {
     public void onTransform(MotionEvent motionEvent, float cx, float cy, float dx, float dy, float rx, float scale) {
     }
 
+    @Override
+    public void onFling(MotionEvent motionEvent, float velocityX, float velocityY) {
+    }
+
 }
@@ -12,4 +12,11 @@ public interface OnGestureListener {
     void onLongPress(MotionEvent motionEvent);
 
     void onTransform(MotionEvent motionEvent, float cx, float cy, float dx, float dy, float rx, float scale);
+
+    /**
+     * @param velocityX velocity in pixels per second
+     * @param velocityY velocity in pixels per second
+     */
+    default void onFling(MotionEvent motionEvent, float velocityX, float velocityY) {
+    }
 }
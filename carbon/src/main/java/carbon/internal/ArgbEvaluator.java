@@ -23,13 +23,18 @@ public class ArgbEvaluator implements TypeEvaluator {
      * separately, recombining the resulting values in the same way.
      */
     public Object evaluate(float fraction, Object startValue, Object endValue) {
-        int startInt = (Integer) startValue;
+        return evaluate(fraction, (int) (Integer) startValue, (int) (Integer) endValue);
+    }
+
+    /**
+     * Same as {@link #evaluate(float, Object, Object)}, but without boxing.
+     */
+    public static int evaluate(float fraction, int startInt, int endInt) {
         int startA = (startInt >> 24) & 0xff;
         int startR = (startInt >> 16) & 0xff;
         int startG = (startInt >> 8) & 0xff;
         int startB = startInt & 0xff;
 
-        int endInt = (Integer) endValue;
         int endA = (endInt >> 24) & 0xff;
         int endR = (endInt >> 16) & 0xff;
         int endG = (endInt >> 8) & 0xff;
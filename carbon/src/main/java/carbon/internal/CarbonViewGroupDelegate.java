@@ -0,0 +1,580 @@
+package carbon.internal;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.content.res.ColorStateList;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Outline;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.view.View;
+import android.view.ViewAnimationUtils;
+import android.view.ViewGroup;
+import android.view.ViewOutlineProvider;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.material.shape.MaterialShapeDrawable;
+import com.google.android.material.shape.ShapeAppearanceModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import carbon.Carbon;
+import carbon.component.Component;
+import carbon.component.ComponentView;
+import carbon.drawable.ripple.RippleDrawable;
+import carbon.drawable.ripple.RippleView;
+import carbon.view.InsetView;
+import carbon.view.ShadowView;
+import carbon.view.ShapeClipMode;
+
+/**
+ * Material render pipeline shared by all Carbon layouts. Owns the shape, corner mask, reveal,
+ * stroke and drawing order state of a layout and implements drawing of children shadows, corner
+ * masking, reveal clipping, strokes and insets. Layouts forward their draw calls to this class, so
+ * there's one implementation of the hot paths for all of them.
+ */
+public class CarbonViewGroupDelegate {
+
+    /**
+     * A drawing pass of the host view. Used to call protected super implementations of draw() and
+     * dispatchDraw() from the delegate.
+     */
+    public interface DrawPass {
+        void draw(@NonNull Canvas canvas);
+    }
+
+    private final ViewGroup view;
+    private final ShadowView shadowView;
+    private final RippleView rippleView;
+    private final DrawPass drawPass, dispatchDrawPass;
+
+    private Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+    private boolean drawCalled = false;
+    private RevealAnimator revealAnimator;
+    private EditModeLayer editModeLayer;
+
+    private ShapeAppearanceModel shapeModel = new ShapeAppearanceModel();
+    private MaterialShapeDrawable shadowDrawable = new MaterialShapeDrawable(shapeModel);
+    private RectF boundsRect = new RectF();
+    private Path cornersMask = new Path();
+    private ShapeClipMode shapeClipMode = ShapeClipMode.AUTO;
+
+    private ColorStateList stroke;
+    private float strokeWidth;
+    private Paint strokePaint;
+
+    private final ElevationDrawingOrder drawingOrder;
+
+    public <Type extends ViewGroup & ShadowView & RippleView> CarbonViewGroupDelegate(Type view, DrawPass drawPass, DrawPass dispatchDrawPass) {
+        this.view = view;
+        this.shadowView = view;
+        this.rippleView = view;
+        this.drawPass = drawPass;
+        this.dispatchDrawPass = dispatchDrawPass;
+        drawingOrder = new ElevationDrawingOrder(view);
+    }
+
+
+    // -------------------------------
+    // drawing
+    // -------------------------------
+
+    public void dispatchDraw(@NonNull Canvas canvas) {
+        boolean r = revealAnimator != null && revealAnimator.isRunning();
+        boolean c = !Carbon.isShapeRect(shapeModel, boundsRect);
+
+        // draw not called, we have to handle corners here
+        if (view.isInEditMode() && !drawCalled && (r || c) && view.getWidth() > 0 && view.getHeight() > 0) {
+            drawEditMode(canvas, dispatchDrawPass);
+        } else if (!drawCalled && (r || c) && view.getWidth() > 0 && view.getHeight() > 0 && !Carbon.IS_LOLLIPOP_OR_HIGHER) {
+            drawMasked(canvas, dispatchDrawPass, r, c);
+        } else {
+            dispatchDrawPass.draw(canvas);
+        }
+        drawCalled = false;
+    }
+
+    public void draw(@NonNull Canvas canvas) {
+        drawCalled = true;
+        boolean r = revealAnimator != null;
+        boolean c = !Carbon.isShapeRect(shapeModel, boundsRect);
+
+        if (view.isInEditMode() && (r || c) && view.getWidth() > 0 && view.getHeight() > 0) {
+            drawEditMode(canvas, drawPass);
+        } else if (view.getWidth() > 0 && view.getHeight() > 0 && (((r || c) && !Carbon.IS_LOLLIPOP_OR_HIGHER) || !shapeModel.isRoundRect(boundsRect))) {
+            drawMasked(canvas, drawPass, r, c);
+        } else {
+            drawPass.draw(canvas);
+        }
+    }
+
+    private void drawEditMode(@NonNull Canvas canvas, DrawPass pass) {
+        if (editModeLayer == null)
+            editModeLayer = new EditModeLayer();
+        pass.draw(editModeLayer.begin(view.getWidth(), view.getHeight()));
+        editModeLayer.drawMasked(canvas, cornersMask);
+    }
+
+    private void drawMasked(@NonNull Canvas canvas, DrawPass pass, boolean r, boolean c) {
+        if (Carbon.shouldClipPath(shapeClipMode, canvas, shapeModel, boundsRect, r)) {
+            int saveCount = canvas.save();
+            if (c)
+                Carbon.clipPath(canvas, cornersMask);
+            if (r)
+                Carbon.clipPath(canvas, revealAnimator.mask);
+            pass.draw(canvas);
+            canvas.restoreToCount(saveCount);
+            return;
+        }
+
+        int saveCount = canvas.saveLayer(0, 0, view.getWidth(), view.getHeight(), null, Canvas.ALL_SAVE_FLAG);
+
+        if (r) {
+            int saveCount2 = canvas.save();
+            canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+            pass.draw(canvas);
+            canvas.restoreToCount(saveCount2);
+        } else {
+            pass.draw(canvas);
+        }
+
+        paint.setXfermode(Carbon.CLEAR_MODE);
+        if (c) {
+            cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
+            canvas.drawPath(cornersMask, paint);
+        }
+        if (r)
+            canvas.drawPath(revealAnimator.mask, paint);
+        paint.setXfermode(null);
+
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Draws shadow and borderless ripple of a child. Should be called before the child is drawn.
+     */
+    public void drawChildDecorations(@NonNull Canvas canvas, @NonNull View child) {
+        // TODO: why isShown() returns false after being reattached?
+        if (child instanceof ShadowView && (!Carbon.IS_LOLLIPOP_OR_HIGHER || ((ShadowView) child).getElevationShadowColor() != null && !Carbon.IS_PIE_OR_HIGHER)) {
+            ShadowView shadowView = (ShadowView) child;
+            shadowView.drawShadow(canvas);
+        }
+
+        if (child instanceof RippleView) {
+            RippleView rippleView = (RippleView) child;
+            RippleDrawable rippleDrawable = rippleView.getRippleDrawable();
+            if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless) {
+                int saveCount = canvas.save();
+                canvas.translate(child.getLeft(), child.getTop());
+                canvas.concat(child.getMatrix());
+                rippleDrawable.draw(canvas);
+                canvas.restoreToCount(saveCount);
+            }
+        }
+    }
+
+    public void drawInsets(@NonNull Canvas canvas) {
+        InsetView insetView = (InsetView) view;
+        int insetColor = insetView.getInsetColor();
+        if (insetColor == 0)
+            return;
+        int insetLeft = insetView.getInsetLeft(), insetTop = insetView.getInsetTop();
+        int insetRight = insetView.getInsetRight(), insetBottom = insetView.getInsetBottom();
+        paint.setColor(insetColor);
+        paint.setAlpha(255);
+        if (insetLeft != 0)
+            canvas.drawRect(0, 0, insetLeft, view.getHeight(), paint);
+        if (insetTop != 0)
+            canvas.drawRect(0, 0, view.getWidth(), insetTop, paint);
+        if (insetRight != 0)
+            canvas.drawRect(view.getWidth() - insetRight, 0, view.getWidth(), view.getHeight(), paint);
+        if (insetBottom != 0)
+            canvas.drawRect(0, view.getHeight() - insetBottom, view.getWidth(), view.getHeight(), paint);
+    }
+
+
+    // -------------------------------
+    // drawing order
+    // -------------------------------
+
+    public ElevationDrawingOrder getDrawingOrder() {
+        return drawingOrder;
+    }
+
+    public int getChildDrawingOrder(int childCount, int child) {
+        return drawingOrder.getChildDrawingOrder(childCount, child);
+    }
+
+
+    // -------------------------------
+    // reveal
+    // -------------------------------
+
+    public Animator createCircularReveal(View hotspot, float startRadius, float finishRadius) {
+        int[] location = new int[2];
+        hotspot.getLocationOnScreen(location);
+        int[] myLocation = new int[2];
+        view.getLocationOnScreen(myLocation);
+        return createCircularReveal(location[0] - myLocation[0] + hotspot.getWidth() / 2, location[1] - myLocation[1] + hotspot.getHeight() / 2, startRadius, finishRadius);
+    }
+
+    public Animator createCircularReveal(int x, int y, float startRadius, float finishRadius) {
+        startRadius = Carbon.getRevealRadius(view, x, y, startRadius);
+        finishRadius = Carbon.getRevealRadius(view, x, y, finishRadius);
+        if (Carbon.IS_LOLLIPOP_OR_HIGHER) {
+            Animator circularReveal = ViewAnimationUtils.createCircularReveal(view, x, y, startRadius, finishRadius);
+            circularReveal.setDuration(Carbon.getDefaultRevealDuration());
+            return circularReveal;
+        } else {
+            revealAnimator = new RevealAnimator(x, y, startRadius, finishRadius);
+            revealAnimator.setDuration(Carbon.getDefaultRevealDuration());
+            revealAnimator.addUpdateListener(animation -> {
+                RevealAnimator reveal = ((RevealAnimator) animation);
+                reveal.radius = (float) reveal.getAnimatedValue();
+                reveal.mask.reset();
+                reveal.mask.addCircle(reveal.x, reveal.y, Math.max((Float) reveal.getAnimatedValue(), 1), Path.Direction.CW);
+                view.postInvalidate();
+            });
+            revealAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationCancel(Animator animation) {
+                    revealAnimator = null;
+                }
+
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    revealAnimator = null;
+                }
+            });
+            return revealAnimator;
+        }
+    }
+
+
+    // -------------------------------
+    // corners
+    // -------------------------------
+
+    @NonNull
+    public ShapeAppearanceModel getShapeModel() {
+        return shapeModel;
+    }
+
+    public void setShapeModel(@NonNull ShapeAppearanceModel model) {
+        this.shapeModel = model;
+        shadowDrawable = new MaterialShapeDrawable(shapeModel);
+        if (view.getWidth() > 0 && view.getHeight() > 0)
+            updateCorners();
+        if (!Carbon.IS_LOLLIPOP_OR_HIGHER)
+            view.postInvalidate();
+    }
+
+    public ShapeClipMode getShapeClipMode() {
+        return shapeClipMode;
+    }
+
+    public void setShapeClipMode(@NonNull ShapeClipMode shapeClipMode) {
+        this.shapeClipMode = shapeClipMode;
+        view.postInvalidate();
+    }
+
+    public boolean isShapeRect() {
+        return Carbon.isShapeRect(shapeModel, boundsRect);
+    }
+
+    public boolean isPointInTransparentRegion(int x, int y) {
+        return shadowDrawable.isPointInTransparentRegion(x, y);
+    }
+
+    public void updateCorners() {
+        if (Carbon.IS_LOLLIPOP_OR_HIGHER) {
+            view.setClipToOutline(true);
+            view.setOutlineProvider(new ViewOutlineProvider() {
+                @Override
+                public void getOutline(View view, Outline outline) {
+                    if (Carbon.isShapeRect(shapeModel, boundsRect)) {
+                        outline.setRect(0, 0, view.getWidth(), view.getHeight());
+                    } else {
+                        shadowDrawable.setBounds(0, 0, view.getWidth(), view.getHeight());
+                        shadowDrawable.getOutline(outline);
+                    }
+                }
+            });
+        }
+
+        boundsRect.set(shadowDrawable.getBounds());
+        shadowDrawable.getPathForSize(view.getWidth(), view.getHeight(), cornersMask);
+    }
+
+
+    // -------------------------------
+    // invalidation
+    // -------------------------------
+
+    public void invalidateParentIfNeeded() {
+        if (view.getParent() == null || !(view.getParent() instanceof View))
+            return;
+
+        RippleDrawable rippleDrawable = rippleView.getRippleDrawable();
+        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless) {
+            ParentInvalidator.invalidateParent(view);
+        } else if (shadowView.getElevation() > 0 || !Carbon.isShapeRect(shapeModel, boundsRect)) {
+            ParentInvalidator.invalidate(view, shadowView.getElevation() + shadowView.getTranslationZ());
+        }
+    }
+
+    public void postInvalidateParentIfNeededDelayed(long delayMilliseconds) {
+        if (view.getParent() == null || !(view.getParent() instanceof View))
+            return;
+
+        RippleDrawable rippleDrawable = rippleView.getRippleDrawable();
+        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless)
+            ((View) view.getParent()).postInvalidateDelayed(delayMilliseconds);
+
+        if (shadowView.getElevation() > 0 || !Carbon.isShapeRect(shapeModel, boundsRect))
+            ((View) view.getParent()).postInvalidateDelayed(delayMilliseconds);
+    }
+
+
+    // -------------------------------
+    // elevation
+    // -------------------------------
+
+    public void drawShadow(@NonNull Canvas canvas, ColorStateList spotShadowColor) {
+        float alpha = view.getAlpha() * Carbon.getBackgroundTintAlpha(view) / 255.0f;
+        if (alpha == 0 || !shadowView.hasShadow())
+            return;
+
+        float z = shadowView.getElevation() + shadowView.getTranslationZ();
+
+        int saveCount;
+        boolean maskShadow = view.getBackground() != null && alpha != 1;
+        boolean r = revealAnimator != null && revealAnimator.isRunning();
+
+        int shadowColor = spotShadowColor != null ? spotShadowColor.getColorForState(view.getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000;
+        ShadowCache.Shadow shadow = ShadowCache.get(shadowDrawable, spotShadowColor, shadowColor, z, view.getWidth(), view.getHeight());
+        boolean layer = maskShadow || r || shadow == null;
+
+        paint.setAlpha((int) (127 * alpha));
+        if (layer) {
+            saveCount = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), paint, Canvas.ALL_SAVE_FLAG);
+        } else {
+            saveCount = canvas.save();
+        }
+        Matrix matrix = view.getMatrix();
+        canvas.setMatrix(matrix);
+
+        if (r) {
+            canvas.clipRect(
+                    view.getLeft() + revealAnimator.x - revealAnimator.radius, view.getTop() + revealAnimator.y - revealAnimator.radius,
+                    view.getLeft() + revealAnimator.x + revealAnimator.radius, view.getTop() + revealAnimator.y + revealAnimator.radius);
+        }
+
+        if (shadow != null) {
+            // without a layer the bitmap is drawn with the shadow's alpha
+            canvas.drawBitmap(shadow.bitmap, view.getLeft() - shadow.padding, (int) (view.getTop() + z / 4) - shadow.padding, layer ? null : paint);
+        } else {
+            shadowDrawable.setFillColor(spotShadowColor);
+            shadowDrawable.setShadowColor(shadowColor);
+            shadowDrawable.setAlpha(0x44);
+            shadowDrawable.setElevation(z);
+            shadowDrawable.setShadowVerticalOffset(0);
+            shadowDrawable.setBounds(view.getLeft(), (int) (view.getTop() + z / 4), view.getRight(), (int) (view.getBottom() + z / 4));
+            shadowDrawable.draw(canvas);
+        }
+
+        canvas.translate(view.getLeft(), view.getTop());
+        canvas.concat(matrix);
+        paint.setXfermode(Carbon.CLEAR_MODE);
+        if (maskShadow) {
+            cornersMask.setFillType(Path.FillType.WINDING);
+            canvas.drawPath(cornersMask, paint);
+        }
+        if (r)
+            canvas.drawPath(revealAnimator.mask, paint);
+
+        canvas.restoreToCount(saveCount);
+        paint.setXfermode(null);
+        paint.setAlpha(255);
+    }
+
+
+    // -------------------------------
+    // stroke
+    // -------------------------------
+
+    public void drawStroke(@NonNull Canvas canvas) {
+        if (stroke == null)
+            return;
+        strokePaint.setStrokeWidth(strokeWidth * 2);
+        strokePaint.setColor(stroke.getColorForState(view.getDrawableState(), stroke.getDefaultColor()));
+        cornersMask.setFillType(Path.FillType.WINDING);
+        canvas.drawPath(cornersMask, strokePaint);
+    }
+
+    public void setStroke(ColorStateList colorStateList) {
+        stroke = colorStateList;
+
+        if (stroke == null)
+            return;
+
+        if (strokePaint == null) {
+            strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            strokePaint.setStyle(Paint.Style.STROKE);
+        }
+    }
+
+    public ColorStateList getStroke() {
+        return stroke;
+    }
+
+    public void setStrokeWidth(float strokeWidth) {
+        this.strokeWidth = strokeWidth;
+    }
+
+    public float getStrokeWidth() {
+        return strokeWidth;
+    }
+
+
+    // -------------------------------
+    // ViewGroup utils
+    // -------------------------------
+
+    public Component findComponentById(int id) {
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getView().getId() == id)
+                    return ((ComponentView) child).getComponent();
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return null;
+    }
+
+    public List<Component> findComponentsById(int id) {
+        List<Component> result = new ArrayList<>();
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getView().getId() == id)
+                    result.add(((ComponentView) child).getComponent());
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return result;
+    }
+
+    public Component findComponentOfType(Class type) {
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getClass().equals(type))
+                    return ((ComponentView) child).getComponent();
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return null;
+    }
+
+    public List<Component> findComponentsOfType(Class type) {
+        List<Component> result = new ArrayList<>();
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child instanceof ComponentView && ((ComponentView) child).getComponent().getClass().equals(type))
+                    result.add(((ComponentView) child).getComponent());
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return result;
+    }
+
+    public <Type extends View> Type findViewOfType(Class<Type> type) {
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child.getClass().equals(type))
+                    return (Type) child;
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return null;
+    }
+
+    public <Type extends View> List<Type> findViewsOfType(Class<Type> type) {
+        List<Type> result = new ArrayList<>();
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child.getClass().equals(type))
+                    result.add((Type) child);
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return result;
+    }
+
+    public List<View> findViewsById(int id) {
+        List<View> result = new ArrayList<>();
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (child.getId() == id)
+                    result.add(child);
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return result;
+    }
+
+    public List<View> findViewsWithTag(Object tag) {
+        List<View> result = new ArrayList<>();
+        List<ViewGroup> groups = new ArrayList<>();
+        groups.add(view);
+        while (!groups.isEmpty()) {
+            ViewGroup group = groups.remove(0);
+            for (int i = 0; i < group.getChildCount(); i++) {
+                View child = group.getChildAt(i);
+                if (tag.equals(child.getTag()))
+                    result.add(child);
+                if (child instanceof ViewGroup)
+                    groups.add((ViewGroup) child);
+            }
+        }
+        return result;
+    }
+}
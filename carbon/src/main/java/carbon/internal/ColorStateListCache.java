@@ -0,0 +1,67 @@
+package carbon.internal;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.WeakHashMap;
+
+/**
+ * Cache of default color state lists made from theme colors. Lists are cached per theme and
+ * resource id and dropped when the configuration of the theme's resources changes. Color state
+ * lists are immutable, so cached lists are shared by all views using the same theme - views
+ * animating their colors wrap them in their own {@link carbon.animation.AnimatedColorStateList}.
+ */
+public class ColorStateListCache {
+
+    private static class Entry {
+        final Configuration configuration;
+        final SparseArray<ColorStateList> lists = new SparseArray<>();
+
+        Entry(Configuration configuration) {
+            this.configuration = new Configuration(configuration);
+        }
+    }
+
+    private static final WeakHashMap<Resources.Theme, Entry> cache = new WeakHashMap<>();
+
+    private ColorStateListCache() {
+    }
+
+    @Nullable
+    public static synchronized ColorStateList get(@NonNull Context context, int resId) {
+        Entry entry = getEntry(context, false);
+        return entry != null ? entry.lists.get(resId) : null;
+    }
+
+    public static synchronized void put(@NonNull Context context, int resId, @NonNull ColorStateList list) {
+        getEntry(context, true).lists.put(resId, list);
+    }
+
+    /**
+     * Clears the cache. Should be called after modifying a theme already used by views.
+     */
+    public static synchronized void clear() {
+        cache.clear();
+    }
+
+    private static Entry getEntry(Context context, boolean create) {
+        Resources.Theme theme = context.getTheme();
+        Configuration configuration = context.getResources().getConfiguration();
+        Entry entry = cache.get(theme);
+        if (entry != null && !entry.configuration.equals(configuration)) {
+            cache.remove(theme);
+            entry = null;
+        }
+        if (entry == null && create) {
+            entry = new Entry(configuration);
+            cache.put(theme, entry);
+        }
+        return entry;
+    }
+}
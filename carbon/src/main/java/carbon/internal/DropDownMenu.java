@@ -234,6 +234,14 @@ public class DropDownMenu extends PopupWindow {
         }
     }
 
+    public void setRecycledViewPool(RecyclerView.RecycledViewPool pool) {
+        recycler.setRecycledViewPool(pool);
+    }
+
+    public RecyclerView.RecycledViewPool getRecycledViewPool() {
+        return recycler.getRecycledViewPool();
+    }
+
     public ListAdapter<?, Serializable> getAdapter() {
         return (ListAdapter<?, Serializable>) recycler.getAdapter();
     }
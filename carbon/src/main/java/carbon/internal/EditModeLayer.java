@@ -0,0 +1,48 @@
+package carbon.internal;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Shader;
+
+/**
+ * Offscreen layer used to apply corner masks in edit mode (layout previews and layoutlib based
+ * screenshot tests). The layer bitmap is reused as long as the view's size doesn't change. The mask
+ * is applied in one pass by filling the mask path with the layer's contents using a BitmapShader.
+ */
+public class EditModeLayer {
+    private Bitmap bitmap;
+    private Canvas canvas;
+    private Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * Prepares the layer for drawing.
+     *
+     * @return a cleared canvas of the requested size
+     */
+    public Canvas begin(int width, int height) {
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            if (bitmap != null)
+                bitmap.recycle();
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+            paint.setShader(new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP));
+        } else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        return canvas;
+    }
+
+    /**
+     * Draws the layer's contents clipped to the given mask.
+     */
+    public void drawMasked(Canvas target, Path mask) {
+        Path.FillType fillType = mask.getFillType();
+        mask.setFillType(Path.FillType.WINDING);
+        target.drawPath(mask, paint);
+        mask.setFillType(fillType);
+    }
+}
@@ -0,0 +1,92 @@
+package carbon.internal;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
+
+import java.util.Arrays;
+
+import carbon.view.ShadowView;
+
+/**
+ * Caches the elevation based drawing order of a ViewGroup's children as a permutation of child
+ * indices. The order is rebuilt only after a child was added, removed, reordered or changed its
+ * elevation, so {@link ViewGroup#getChildDrawingOrder(int, int)} is a plain array lookup. Children
+ * are compared with the ones used to build the order at the start of each drawing pass, which also
+ * catches reorders without add/remove callbacks, like bringChildToFront() or attachViewToParent().
+ */
+public class ElevationDrawingOrder {
+
+    public interface Owner {
+        ElevationDrawingOrder getElevationDrawingOrder();
+    }
+
+    private final ViewGroup viewGroup;
+    private int[] order = new int[0];
+    private float[] z = new float[0];
+    private View[] children = new View[0];
+    private boolean valid = false;
+
+    public ElevationDrawingOrder(ViewGroup viewGroup) {
+        this.viewGroup = viewGroup;
+    }
+
+    public void invalidate() {
+        valid = false;
+        Arrays.fill(children, null);
+    }
+
+    public int getChildDrawingOrder(int childCount, int drawingPosition) {
+        if (!valid || order.length != childCount || drawingPosition == 0 && !isSameChildren(childCount))
+            build(childCount);
+        return order[drawingPosition];
+    }
+
+    private void build(int childCount) {
+        if (order.length != childCount) {
+            order = new int[childCount];
+            z = new float[childCount];
+            children = new View[childCount];
+        }
+
+        // stable insertion sort - children with equal elevation keep their index order
+        for (int i = 0; i < childCount; i++) {
+            View child = viewGroup.getChildAt(i);
+            children[i] = child;
+            float elevation = getElevation(child);
+            int j = i - 1;
+            while (j >= 0 && z[j] > elevation) {
+                z[j + 1] = z[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            z[j + 1] = elevation;
+            order[j + 1] = i;
+        }
+        valid = true;
+    }
+
+    private boolean isSameChildren(int childCount) {
+        for (int i = 0; i < childCount; i++) {
+            if (children[i] != viewGroup.getChildAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    public static float getElevation(View view) {
+        if (view instanceof ShadowView)  // this casting is not redundant
+            return ((ShadowView) view).getElevation() + ((ShadowView) view).getTranslationZ();
+        return 0;
+    }
+
+    /**
+     * Should be called by {@link ShadowView} implementations when their elevation or translationZ
+     * changes.
+     */
+    public static void onElevationChanged(View child) {
+        ViewParent parent = child.getParent();
+        if (parent instanceof Owner)
+            ((Owner) parent).getElevationDrawingOrder().invalidate();
+    }
+}
@@ -0,0 +1,240 @@
+package carbon.internal;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.graphics.PorterDuff;
+import android.graphics.drawable.Drawable;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.SubMenu;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.view.menu.MenuBuilder;
+import androidx.appcompat.view.menu.MenuItemImpl;
+import androidx.core.view.MenuItemCompat;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of parsed menu resources. Menus are cached per theme and resource id as immutable
+ * snapshots and dropped when the configuration of the theme's resources changes. Each call to
+ * {@link #get(Context, int)} builds a new menu from the snapshot, so callers may modify the
+ * returned menu. Menus with action views, action providers or items declaring android:onClick
+ * aren't cached, because their views, providers and click listeners can't be copied.
+ */
+public class MenuCache {
+
+    private static class ItemSnapshot {
+        int groupId, itemId, order;
+        CharSequence title, titleCondensed, contentDescription, tooltipText;
+        Drawable.ConstantState icon;
+        ColorStateList iconTintList;
+        PorterDuff.Mode iconTintMode;
+        boolean checkable, exclusiveCheckable, checked, visible, enabled;
+        char alphabeticShortcut, numericShortcut;
+        int showAsAction;
+        Intent intent;
+        ItemSnapshot[] subMenu;
+    }
+
+    private static class Entry {
+        final Configuration configuration;
+        final SparseArray<ItemSnapshot[]> menus = new SparseArray<>();
+        final SparseBooleanArray uncached = new SparseBooleanArray();
+
+        Entry(Configuration configuration) {
+            this.configuration = new Configuration(configuration);
+        }
+    }
+
+    private static final String ANDROID_NAMESPACE = "http://schemas.android.com/apk/res/android";
+
+    private static final WeakHashMap<Resources.Theme, Entry> cache = new WeakHashMap<>();
+
+    private MenuCache() {
+    }
+
+    /**
+     * @return a new menu built from the cached snapshot or null if the menu isn't cached
+     */
+    @Nullable
+    public static Menu get(@NonNull Context context, int resId) {
+        ItemSnapshot[] snapshot;
+        synchronized (MenuCache.class) {
+            Entry entry = getEntry(context, false);
+            snapshot = entry != null ? entry.menus.get(resId) : null;
+        }
+        if (snapshot == null)
+            return null;
+        Menu menu = new MenuBuilder(context);
+        addItems(context.getResources(), menu, snapshot);
+        return menu;
+    }
+
+    /**
+     * Caches a menu inflated from the given resource. Menus which can't be cached are remembered,
+     * so their resources are checked only once.
+     */
+    public static void put(@NonNull Context context, int resId, @NonNull Menu menu) {
+        synchronized (MenuCache.class) {
+            if (getEntry(context, true).uncached.get(resId))
+                return;
+        }
+        ItemSnapshot[] snapshot = hasOnClick(context.getResources(), resId) ? null : takeSnapshot(menu);
+        synchronized (MenuCache.class) {
+            Entry entry = getEntry(context, true);
+            if (snapshot == null) {
+                entry.uncached.put(resId, true);
+            } else {
+                entry.menus.put(resId, snapshot);
+            }
+        }
+    }
+
+    /**
+     * Clears the cache. Should be called after modifying a theme already used by menus.
+     */
+    public static synchronized void clear() {
+        cache.clear();
+    }
+
+    private static Entry getEntry(Context context, boolean create) {
+        Resources.Theme theme = context.getTheme();
+        Configuration configuration = context.getResources().getConfiguration();
+        Entry entry = cache.get(theme);
+        if (entry != null && !entry.configuration.equals(configuration)) {
+            cache.remove(theme);
+            entry = null;
+        }
+        if (entry == null && create) {
+            entry = new Entry(configuration);
+            cache.put(theme, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Checks if any item of the menu resource, including items of submenus, declares
+     * android:onClick. Click listeners created for these items call methods of the inflating
+     * context and aren't accessible.
+     */
+    private static boolean hasOnClick(Resources resources, int resId) {
+        XmlResourceParser parser = null;
+        try {
+            parser = resources.getXml(resId);
+            for (int event = parser.getEventType(); event != XmlPullParser.END_DOCUMENT; event = parser.next()) {
+                if (event == XmlPullParser.START_TAG && "item".equals(parser.getName()) &&
+                        parser.getAttributeValue(ANDROID_NAMESPACE, "onClick") != null)
+                    return true;
+            }
+            return false;
+        } catch (XmlPullParserException | IOException | Resources.NotFoundException e) {
+            // can't be checked, so it's not cached
+            return true;
+        } finally {
+            if (parser != null)
+                parser.close();
+        }
+    }
+
+    private static ItemSnapshot[] takeSnapshot(Menu menu) {
+        ItemSnapshot[] snapshot = new ItemSnapshot[menu.size()];
+        for (int i = 0; i < menu.size(); i++) {
+            MenuItem item = menu.getItem(i);
+            if (item.getActionView() != null || MenuItemCompat.getActionProvider(item) != null)
+                return null;
+
+            ItemSnapshot s = new ItemSnapshot();
+            s.groupId = item.getGroupId();
+            s.itemId = item.getItemId();
+            s.order = item.getOrder();
+            s.title = item.getTitle();
+            s.titleCondensed = item.getTitleCondensed();
+            s.contentDescription = MenuItemCompat.getContentDescription(item);
+            s.tooltipText = MenuItemCompat.getTooltipText(item);
+            try {   // breaks preview
+                Drawable icon = item.getIcon();
+                if (icon != null) {
+                    s.icon = icon.getConstantState();
+                    if (s.icon == null)
+                        return null;
+                }
+            } catch (Exception e) {
+                return null;
+            }
+            s.iconTintList = MenuItemCompat.getIconTintList(item);
+            s.iconTintMode = MenuItemCompat.getIconTintMode(item);
+            s.checkable = item.isCheckable();
+            s.checked = item.isChecked();
+            s.visible = item.isVisible();
+            s.enabled = item.isEnabled();
+            s.alphabeticShortcut = item.getAlphabeticShortcut();
+            s.numericShortcut = item.getNumericShortcut();
+            if (item.getIntent() != null)
+                s.intent = new Intent(item.getIntent());
+            if (item instanceof MenuItemImpl) {
+                MenuItemImpl impl = (MenuItemImpl) item;
+                s.exclusiveCheckable = impl.isExclusiveCheckable();
+                if (impl.requiresActionButton()) {
+                    s.showAsAction = MenuItem.SHOW_AS_ACTION_ALWAYS;
+                } else if (impl.requestsActionButton()) {
+                    s.showAsAction = MenuItem.SHOW_AS_ACTION_IF_ROOM;
+                }
+                if (impl.showsTextAsAction())
+                    s.showAsAction |= MenuItem.SHOW_AS_ACTION_WITH_TEXT;
+            }
+            if (item.hasSubMenu()) {
+                s.subMenu = takeSnapshot(item.getSubMenu());
+                if (s.subMenu == null)
+                    return null;
+            }
+            snapshot[i] = s;
+        }
+        return snapshot;
+    }
+
+    private static void addItems(Resources resources, Menu menu, ItemSnapshot[] snapshot) {
+        for (ItemSnapshot s : snapshot) {
+            MenuItem item;
+            if (s.subMenu != null) {
+                SubMenu subMenu = menu.addSubMenu(s.groupId, s.itemId, s.order, s.title);
+                addItems(resources, subMenu, s.subMenu);
+                item = subMenu.getItem();
+            } else {
+                item = menu.add(s.groupId, s.itemId, s.order, s.title);
+            }
+
+            item.setTitleCondensed(s.titleCondensed);
+            MenuItemCompat.setContentDescription(item, s.contentDescription);
+            MenuItemCompat.setTooltipText(item, s.tooltipText);
+            if (s.icon != null)
+                item.setIcon(s.icon.newDrawable(resources));
+            if (s.iconTintList != null)
+                MenuItemCompat.setIconTintList(item, s.iconTintList);
+            if (s.iconTintMode != null)
+                MenuItemCompat.setIconTintMode(item, s.iconTintMode);
+            item.setCheckable(s.checkable);
+            if (item instanceof MenuItemImpl)
+                ((MenuItemImpl) item).setExclusiveCheckable(s.exclusiveCheckable);
+            item.setChecked(s.checked);
+            item.setVisible(s.visible);
+            item.setEnabled(s.enabled);
+            item.setAlphabeticShortcut(s.alphabeticShortcut);
+            item.setNumericShortcut(s.numericShortcut);
+            if (s.intent != null)
+                item.setIntent(new Intent(s.intent));
+            item.setShowAsAction(s.showAsAction);
+        }
+    }
+}
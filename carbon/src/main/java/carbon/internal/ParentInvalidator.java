@@ -0,0 +1,161 @@
+package carbon.internal;
+
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+
+import androidx.collection.ArrayMap;
+
+import java.util.ArrayList;
+import java.util.WeakHashMap;
+
+/**
+ * Batches parent invalidations requested by views drawing outside of their bounds (shadows,
+ * borderless ripples). Requests are de-duplicated and merged per parent and dispatched once per
+ * frame, right before the view hierarchy is drawn, or on the next frame if there's no traversal
+ * scheduled. Only the area of the child and its shadow is invalidated, including the area covered by
+ * the previous request, so moving children don't leave their shadows behind.
+ * <p>
+ * Should be used from the main thread only.
+ */
+public class ParentInvalidator {
+
+    private static ArrayMap<View, Rect> pending = new ArrayMap<>();
+    private static ArrayMap<View, Rect> dispatched = new ArrayMap<>();
+    private static final WeakHashMap<View, Rect> lastBounds = new WeakHashMap<>();
+    private static final ArrayList<Rect> pool = new ArrayList<>();
+    private static final RectF rect = new RectF();
+    private static final ArrayList<ViewTreeObserver> observers = new ArrayList<>();
+    private static boolean scheduled = false, dispatching = false;
+
+    private static final ViewTreeObserver.OnPreDrawListener preDrawListener = () -> {
+        dispatch();
+        return true;
+    };
+    private static final Runnable dispatchRunnable = ParentInvalidator::dispatch;
+    private static Handler handler;
+    private static Choreographer.FrameCallback frameCallback;
+
+    private ParentInvalidator() {
+    }
+
+    /**
+     * Invalidates the area of the child's parent covered by the child and its shadow.
+     *
+     * @param shadowOutset how much the child's shadow extends over its bounds
+     */
+    public static void invalidate(View child, float shadowOutset) {
+        ViewParent parent = child.getParent();
+        if (!(parent instanceof View))
+            return;
+
+        Rect dirty = pending.get(parent);
+        if (dirty == null) {
+            if (pending.containsKey(parent))
+                return; // the whole parent is already going to be invalidated
+            dirty = pool.isEmpty() ? new Rect() : pool.remove(pool.size() - 1);
+            dirty.setEmpty();
+            pending.put((View) parent, dirty);
+        }
+
+        rect.set(0, 0, child.getWidth(), child.getHeight());
+        child.getMatrix().mapRect(rect);
+        rect.offset(child.getLeft(), child.getTop());
+        rect.inset(-shadowOutset - 1, -shadowOutset - 1);
+
+        Rect bounds = lastBounds.get(child);
+        if (bounds == null) {
+            bounds = new Rect();
+            lastBounds.put(child, bounds);
+        } else {
+            dirty.union(bounds);
+        }
+        rect.roundOut(bounds);
+        dirty.union(bounds);
+
+        schedule((View) parent);
+    }
+
+    /**
+     * Invalidates the whole parent. Used when the child's drawing isn't bounded, like borderless
+     * ripples.
+     */
+    public static void invalidateParent(View child) {
+        ViewParent parent = child.getParent();
+        if (!(parent instanceof View))
+            return;
+
+        Rect dirty = pending.put((View) parent, null);
+        if (dirty != null)
+            pool.add(dirty);
+
+        schedule((View) parent);
+    }
+
+    private static void schedule(View parent) {
+        if (dispatching)
+            return;
+
+        ViewTreeObserver observer = parent.getViewTreeObserver();
+        if (observer.isAlive() && !observers.contains(observer)) {
+            observer.addOnPreDrawListener(preDrawListener);
+            observers.add(observer);
+        }
+
+        if (scheduled)
+            return;
+        scheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (frameCallback == null)
+                frameCallback = frameTimeNanos -> dispatch();
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        } else {
+            if (handler == null)
+                handler = new Handler(Looper.getMainLooper());
+            handler.post(dispatchRunnable);
+        }
+    }
+
+    private static void dispatch() {
+        for (ViewTreeObserver observer : observers) {
+            if (observer.isAlive())
+                observer.removeOnPreDrawListener(preDrawListener);
+        }
+        observers.clear();
+        if (scheduled) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                Choreographer.getInstance().removeFrameCallback(frameCallback);
+            } else {
+                handler.removeCallbacks(dispatchRunnable);
+            }
+            scheduled = false;
+        }
+
+        dispatching = true;
+        // invalidated parents may request invalidation of their own parents - these requests are
+        // handled in the same frame
+        while (!pending.isEmpty()) {
+            ArrayMap<View, Rect> requests = pending;
+            pending = dispatched;
+            dispatched = requests;
+            for (int i = 0; i < requests.size(); i++) {
+                View parent = requests.keyAt(i);
+                Rect dirty = requests.valueAt(i);
+                if (dirty == null) {
+                    parent.invalidate();
+                } else {
+                    parent.invalidate(dirty);
+                    pool.add(dirty);
+                }
+            }
+            requests.clear();
+        }
+        dispatching = false;
+    }
+}
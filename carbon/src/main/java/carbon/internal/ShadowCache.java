@@ -0,0 +1,173 @@
+package carbon.internal;
+
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.RectF;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+
+import com.google.android.material.shape.MaterialShapeDrawable;
+import com.google.android.material.shape.ShapeAppearanceModel;
+
+import java.util.Arrays;
+
+/**
+ * Process-wide LRU cache of rendered shadows. Shadows are keyed by shape, size, elevation and
+ * color, so views with identical shadows (like cards in a list) share one bitmap and draw it with
+ * a single blit instead of rendering the blurred shadow on every frame.
+ */
+public class ShadowCache {
+    public static final int DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+    public static class Shadow {
+        public final Bitmap bitmap;
+        public final int padding;
+
+        Shadow(Bitmap bitmap, int padding) {
+            this.bitmap = bitmap;
+            this.padding = padding;
+        }
+    }
+
+    private static class Key {
+        int width, height, elevation, fillColor, shadowColor;
+        float[] cornerSizes = new float[4];
+        Class[] corners = new Class[4];
+
+        void set(ShapeAppearanceModel model, RectF bounds, int elevation, int fillColor, int shadowColor) {
+            width = (int) bounds.width();
+            height = (int) bounds.height();
+            this.elevation = elevation;
+            this.fillColor = fillColor;
+            this.shadowColor = shadowColor;
+            cornerSizes[0] = model.getTopLeftCornerSize().getCornerSize(bounds);
+            cornerSizes[1] = model.getTopRightCornerSize().getCornerSize(bounds);
+            cornerSizes[2] = model.getBottomRightCornerSize().getCornerSize(bounds);
+            cornerSizes[3] = model.getBottomLeftCornerSize().getCornerSize(bounds);
+            corners[0] = model.getTopLeftCorner().getClass();
+            corners[1] = model.getTopRightCorner().getClass();
+            corners[2] = model.getBottomRightCorner().getClass();
+            corners[3] = model.getBottomLeftCorner().getClass();
+        }
+
+        Key copy() {
+            Key key = new Key();
+            key.width = width;
+            key.height = height;
+            key.elevation = elevation;
+            key.fillColor = fillColor;
+            key.shadowColor = shadowColor;
+            key.cornerSizes = cornerSizes.clone();
+            key.corners = corners.clone();
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return width == key.width && height == key.height && elevation == key.elevation &&
+                    fillColor == key.fillColor && shadowColor == key.shadowColor &&
+                    Arrays.equals(cornerSizes, key.cornerSizes) && Arrays.equals(corners, key.corners);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + height;
+            result = 31 * result + elevation;
+            result = 31 * result + fillColor;
+            result = 31 * result + shadowColor;
+            result = 31 * result + Arrays.hashCode(cornerSizes);
+            result = 31 * result + Arrays.hashCode(corners);
+            return result;
+        }
+    }
+
+    private static final LruCache<Key, Shadow> cache = new LruCache<Key, Shadow>(DEFAULT_MAX_SIZE) {
+        @Override
+        protected int sizeOf(@NonNull Key key, @NonNull Shadow value) {
+            return value.bitmap.getRowBytes() * value.bitmap.getHeight();
+        }
+    };
+    private static final Key lookupKey = new Key();
+    private static final RectF bounds = new RectF();
+
+    private ShadowCache() {
+    }
+
+    /**
+     * Returns a cached shadow for the given drawable's shape or renders a new one. The shadow is
+     * rendered with the same parameters views use for their shadow drawables. The returned bitmap
+     * is larger than the view by {@link Shadow#padding} on each side.
+     *
+     * @return the shadow or null if the shadow is too large to be cached
+     */
+    @Nullable
+    public static synchronized Shadow get(@NonNull MaterialShapeDrawable drawable, @Nullable ColorStateList fillColor, int shadowColor, float elevation, int width, int height) {
+        if (width <= 0 || height <= 0)
+            return null;
+
+        // whole pixels are indistinguishable in a blurred shadow and keep animated elevations from flooding the cache
+        int z = Math.round(elevation);
+        int padding = z + 1;
+        int bitmapWidth = width + 2 * padding, bitmapHeight = height + 2 * padding;
+        if ((long) bitmapWidth * bitmapHeight * 4 > cache.maxSize() / 4)
+            return null;
+
+        bounds.set(0, 0, width, height);
+        lookupKey.set(drawable.getShapeAppearanceModel(), bounds, z, fillColor != null ? fillColor.getDefaultColor() : 0xff000000, shadowColor);
+        Shadow shadow = cache.get(lookupKey);
+        if (shadow != null)
+            return shadow;
+
+        drawable.setFillColor(fillColor);
+        drawable.setShadowColor(shadowColor);
+        drawable.setAlpha(0x44);
+        drawable.setElevation(z);
+        drawable.setShadowVerticalOffset(0);
+        drawable.setBounds(padding, padding, padding + width, padding + height);
+        Bitmap bitmap = Bitmap.createBitmap(bitmapWidth, bitmapHeight, Bitmap.Config.ARGB_8888);
+        drawable.draw(new Canvas(bitmap));
+
+        shadow = new Shadow(bitmap, padding);
+        cache.put(lookupKey.copy(), shadow);
+        return shadow;
+    }
+
+    public static int getHitCount() {
+        return cache.hitCount();
+    }
+
+    public static int getMissCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * @return the number of bytes used by cached shadows
+     */
+    public static int getSize() {
+        return cache.size();
+    }
+
+    public static int getMaxSize() {
+        return cache.maxSize();
+    }
+
+    /**
+     * Sets the cache size in bytes. Shadows larger than a quarter of this size are not cached.
+     */
+    public static void setMaxSize(int maxSize) {
+        cache.resize(maxSize);
+    }
+
+    public static void clear() {
+        cache.evictAll();
+    }
+}
@@ -0,0 +1,62 @@
+package carbon.internal;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Text measured and laid out on a background thread. Keeps the original text, so it can still be
+ * set if the view's text metrics changed while the text was being precomputed.
+ */
+public class TextFuture extends FutureTask<PrecomputedTextCompat> {
+
+    public interface OnDoneListener {
+        void onDone(TextFuture future);
+    }
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+
+    private final CharSequence text;
+    private final OnDoneListener listener;
+
+    /**
+     * @param listener called on the main thread when the text is ready
+     */
+    public TextFuture(@NonNull CharSequence text, @NonNull PrecomputedTextCompat.Params params, @NonNull OnDoneListener listener) {
+        super(() -> PrecomputedTextCompat.create(text, params));
+        this.text = text;
+        this.listener = listener;
+    }
+
+    @Override
+    protected void done() {
+        if (!isCancelled())
+            handler.post(() -> listener.onDone(this));
+    }
+
+    /**
+     * Sets the precomputed text, waiting for it if needed. Text computed with different metrics
+     * than the view's current metrics is set as plain text.
+     */
+    public static void apply(@NonNull TextView view, @NonNull Future<PrecomputedTextCompat> future) {
+        try {
+            PrecomputedTextCompat precomputedText = future.get();
+            if (precomputedText.getParams().equals(TextViewCompat.getTextMetricsParams(view))) {
+                TextViewCompat.setPrecomputedText(view, precomputedText);
+            } else {
+                view.setText(future instanceof TextFuture ? ((TextFuture) future).text : precomputedText.toString());
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            if (future instanceof TextFuture)
+                view.setText(((TextFuture) future).text);
+        }
+    }
+}
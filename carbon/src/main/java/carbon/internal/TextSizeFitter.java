@@ -0,0 +1,176 @@
+package carbon.internal;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+
+import java.util.Arrays;
+
+/**
+ * Finds the largest preset text size at which text fits in the given space. Fitted sizes are kept
+ * in a process-wide LRU cache keyed by text, space, typeface, line settings and presets, so views
+ * showing the same text in the same space (like rows of a list) fit it only once. Each view keeps
+ * its own fitter, which also remembers the last request and skips the lookup if nothing changed.
+ * <p>
+ * Should be used from the main thread only.
+ */
+public class TextSizeFitter {
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private static class Key {
+        String text;
+        Typeface typeface;
+        int width, height, maxLines;
+        float spacingMult, spacingAdd;
+        float[] presets;
+        int hash;
+
+        void set(String text, Typeface typeface, int width, int height, int maxLines, float spacingMult, float spacingAdd, float[] presets) {
+            this.text = text;
+            this.typeface = typeface;
+            this.width = width;
+            this.height = height;
+            this.maxLines = maxLines;
+            this.spacingMult = spacingMult;
+            this.spacingAdd = spacingAdd;
+            this.presets = presets;
+            int result = text.hashCode();
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + maxLines;
+            result = 31 * result + Float.floatToIntBits(spacingMult);
+            result = 31 * result + Float.floatToIntBits(spacingAdd);
+            result = 31 * result + Arrays.hashCode(presets);
+            hash = result;
+        }
+
+        void set(Key key) {
+            text = key.text;
+            typeface = key.typeface;
+            width = key.width;
+            height = key.height;
+            maxLines = key.maxLines;
+            spacingMult = key.spacingMult;
+            spacingAdd = key.spacingAdd;
+            presets = key.presets;
+            hash = key.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return hash == key.hash && width == key.width && height == key.height && maxLines == key.maxLines &&
+                    spacingMult == key.spacingMult && spacingAdd == key.spacingAdd && typeface == key.typeface &&
+                    text.equals(key.text) && (presets == key.presets || Arrays.equals(presets, key.presets));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final LruCache<Key, Float> cache = new LruCache<>(DEFAULT_MAX_SIZE);
+    private static final Key lookupKey = new Key();
+    private static final TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+
+    private final Key lastKey = new Key();
+    private float lastSize;
+
+    /**
+     * @param maxLines  maximum number of lines or -1 if not limited
+     * @param presets   text sizes in ascending order
+     * @return the largest preset size the text fits at or the smallest preset if none fits
+     */
+    public float fit(@NonNull CharSequence text, @Nullable Typeface typeface, int width, int height, int maxLines, float spacingMult, float spacingAdd, @NonNull float[] presets) {
+        lookupKey.set(text.toString(), typeface, width, height, maxLines, spacingMult, spacingAdd, presets);
+        if (lastKey.text != null && lastKey.equals(lookupKey))
+            return lastSize;
+
+        Float size = cache.get(lookupKey);
+        if (size == null) {
+            size = binarySearch(lookupKey);
+            Key key = new Key();
+            key.set(lookupKey);
+            cache.put(key, size);
+        }
+        lastKey.set(lookupKey);
+        lastSize = size;
+        return size;
+    }
+
+    /**
+     * Forgets the last request, so the next call to {@link #fit} looks the size up again.
+     */
+    public void reset() {
+        lastKey.text = null;
+    }
+
+    private static float binarySearch(Key key) {
+        int lastBest = 0;
+        int lo = 0;
+        int hi = key.presets.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) / 2;
+            if (fits(key, key.presets[mid])) {
+                lastBest = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return key.presets[lastBest];
+    }
+
+    private static boolean fits(Key key, float size) {
+        paint.setTextSize(size);
+        paint.setTypeface(key.typeface);
+        if (key.maxLines == 1)
+            return key.width >= paint.measureText(key.text) && key.height >= paint.getFontSpacing();
+
+        StaticLayout layout;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            // builders are pooled by the framework
+            layout = StaticLayout.Builder.obtain(key.text, 0, key.text.length(), paint, Math.max(key.width, 0))
+                    .setLineSpacing(key.spacingAdd, key.spacingMult)
+                    .setIncludePad(true)
+                    .build();
+        } else {
+            layout = new StaticLayout(key.text, paint, Math.max(key.width, 0), Layout.Alignment.ALIGN_NORMAL, key.spacingMult, key.spacingAdd, true);
+        }
+        if (key.maxLines != -1 && layout.getLineCount() > key.maxLines)
+            return false;
+        return key.width >= layout.getWidth() && key.height >= layout.getHeight();
+    }
+
+    public static int getHitCount() {
+        return cache.hitCount();
+    }
+
+    public static int getMissCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * Sets the number of cached sizes.
+     */
+    public static void setMaxSize(int maxSize) {
+        cache.resize(maxSize);
+    }
+
+    public static void clear() {
+        cache.evictAll();
+    }
+}
@@ -47,10 +47,12 @@ public class TypefaceCompat {
         sTypefaceCompatImpl = new TypefaceCompatBaseImpl();
     }
 
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
     /**
      * Cache for Typeface objects dynamically loaded from assets.
      */
-    private static final LruCache<String, Typeface> sTypefaceCache = new LruCache<>(16);
+    private static final LruCache<Long, Typeface> sTypefaceCache = new LruCache<>(DEFAULT_CACHE_SIZE);
 
     private TypefaceCompat() {
     }
@@ -68,15 +70,21 @@ public class TypefaceCompat {
     }
 
     /**
-     * Create a unique id for a given Resource and id.
+     * Sets the maximum number of cached typefaces.
+     */
+    public static void setCacheSize(int size) {
+        sTypefaceCache.resize(size);
+    }
+
+    /**
+     * Create a unique id for a given Resource and id. Resource ids already contain the package id.
      *
      * @param resources Resources instance
      * @param id        a resource id
-     * @param style     style to be used for this resource, -1 if not available.
      * @return Unique id for a given resource and id.
      */
-    private static String createResourceUid(final Resources resources, int id, boolean italic, int fontWeight) {
-        return resources.getResourcePackageName(id) + "-" + id + "-" + italic + "-" + fontWeight;
+    private static long createResourceUid(final Resources resources, int id, boolean italic, int fontWeight) {
+        return ((long) id << 32) | (italic ? 1L << 16 : 0) | (fontWeight & 0xffff);
     }
 
     /**
@@ -135,7 +143,7 @@ public class TypefaceCompat {
         Typeface typeface = sTypefaceCompatImpl.createFromResourcesFontFile(
                 context, resources, id, path, 0);
         if (typeface != null) {
-            final String resourceUid = createResourceUid(resources, id, italic, weight);
+            final long resourceUid = createResourceUid(resources, id, italic, weight);
             sTypefaceCache.put(resourceUid, typeface);
         }
         return typeface;
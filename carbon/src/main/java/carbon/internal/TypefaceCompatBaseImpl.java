@@ -17,13 +17,18 @@
 package carbon.internal;
 
 import android.content.Context;
+import android.content.pm.PackageManager;
 import android.content.res.Resources;
 import android.graphics.Typeface;
+import android.graphics.fonts.Font;
+import android.graphics.fonts.FontFamily;
+import android.os.Build;
 import android.os.CancellationSignal;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
 import androidx.annotation.RestrictTo;
 import androidx.core.content.res.FontResourcesParserCompat.FontFamilyFilesResourceEntry;
 import androidx.core.content.res.FontResourcesParserCompat.FontFileResourceEntry;
@@ -48,6 +53,13 @@ import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP_PREFIX;
 class TypefaceCompatBaseImpl {
     private static final String TAG = "TypefaceCompatBaseImpl";
     private static final int INVALID_KEY = 0;
+    private static final String CACHE_DIR = "carbon_fonts";
+
+    /**
+     * Directory of font files copied from resources. Its name is the time the app was last
+     * updated, so fonts of previous versions are not used.
+     */
+    private static File sCacheDir;
 
     /**
      * Maps a unique identifier from a Typeface to it's family
@@ -180,11 +192,34 @@ class TypefaceCompatBaseImpl {
     }
 
     /**
-     * Used by Resources to load a font resource of type font file.
+     * Used by Resources to load a font resource of type font file. On API 29+ fonts are loaded
+     * directly from resources. On older platforms fonts can only be loaded from files, so they
+     * are copied to a persistent cache once and loaded from there.
      */
     @Nullable
     public Typeface createFromResourcesFontFile(
             Context context, Resources resources, int id, String path, int style) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            try {
+                return createFromResources(resources, id);
+            } catch (IOException | IllegalArgumentException e) {
+                // the font can still be loaded from a file
+            }
+        }
+
+        final File cacheDir = getCacheDir(context);
+        if (cacheDir != null) {
+            final File file = new File(cacheDir, Integer.toHexString(id) + "-" + Integer.toHexString(path.hashCode()));
+            if (file.isFile() || copyToCache(file, resources, id)) {
+                try {
+                    return Typeface.createFromFile(file.getPath());
+                } catch (RuntimeException e) {
+                    file.delete();
+                    return null;
+                }
+            }
+        }
+
         final File tmpFile = TypefaceCompatUtil.getTempFile(context);
         if (tmpFile == null) {
             return null;
@@ -204,6 +239,64 @@ class TypefaceCompatBaseImpl {
         }
     }
 
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private static Typeface createFromResources(Resources resources, int id) throws IOException {
+        final Font font = new Font.Builder(resources, id).build();
+        final FontFamily family = new FontFamily.Builder(font).build();
+        return new Typeface.CustomFallbackBuilder(family)
+                .setStyle(font.getStyle())
+                .build();
+    }
+
+    @Nullable
+    private static synchronized File getCacheDir(Context context) {
+        if (sCacheDir != null) {
+            return sCacheDir;
+        }
+
+        final String version;
+        try {
+            version = String.valueOf(context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime);
+        } catch (PackageManager.NameNotFoundException e) {
+            return null;
+        }
+        final File root = new File(context.getCacheDir(), CACHE_DIR);
+        final File[] versions = root.listFiles();
+        if (versions != null) {
+            for (File dir : versions) {
+                if (!dir.getName().equals(version)) {
+                    deleteRecursively(dir);
+                }
+            }
+        }
+        final File dir = new File(root, version);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return null;
+        }
+        sCacheDir = dir;
+        return dir;
+    }
+
+    // Files are copied under a temporary name and renamed, so other threads never see partial files.
+    private static boolean copyToCache(File file, Resources resources, int id) {
+        final File tmpFile = new File(file.getPath() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            return TypefaceCompatUtil.copyToFile(tmpFile, resources, id) && (tmpFile.renameTo(file) || file.isFile());
+        } finally {
+            tmpFile.delete();
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
     /**
      * Retrieves the font family resource entries given a unique identifier for a Typeface
      */
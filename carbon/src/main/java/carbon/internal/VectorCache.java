@@ -0,0 +1,190 @@
+package carbon.internal;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+
+import com.caverock.androidsvg.SVG;
+import com.caverock.androidsvg.SVGParseException;
+
+/**
+ * Process-wide caches of parsed SVGs and their renderings used by
+ * {@link carbon.drawable.VectorDrawable}. Renderings are keyed by resource, size and density and
+ * are stored without tint, so all drawables showing the same icon at the same size share one
+ * bitmap and tint it when drawing. Both caches are bounded LRU caches and can be used from any
+ * thread. The raster cache is trimmed when the system is low on memory.
+ */
+public class VectorCache {
+    public static final int DEFAULT_MAX_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SVG_COUNT = 64;
+
+    private static class Key {
+        int resId, width, height;
+        float density;
+
+        Key(int resId, int width, int height, float density) {
+            this.resId = resId;
+            this.width = width;
+            this.height = height;
+            this.density = density;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return resId == key.resId && width == key.width && height == key.height && density == key.density;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = resId;
+            result = 31 * result + width;
+            result = 31 * result + height;
+            result = 31 * result + Float.floatToIntBits(density);
+            return result;
+        }
+    }
+
+    private static final LruCache<Integer, SVG> svgs = new LruCache<>(DEFAULT_MAX_SVG_COUNT);
+    private static final LruCache<Key, Bitmap> bitmaps = new LruCache<Key, Bitmap>(DEFAULT_MAX_SIZE) {
+        @Override
+        protected int sizeOf(@NonNull Key key, @NonNull Bitmap value) {
+            return value.getRowBytes() * value.getHeight();
+        }
+    };
+
+    private static final ComponentCallbacks2 callbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            VectorCache.onTrimMemory(level);
+        }
+
+        @Override
+        public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        }
+
+        @Override
+        public void onLowMemory() {
+            bitmaps.evictAll();
+        }
+    };
+    private static boolean registered = false;
+
+    private VectorCache() {
+    }
+
+    /**
+     * Registers the cache for memory trim callbacks of the application. Can be called many times.
+     */
+    public static synchronized void register(@NonNull Context context) {
+        if (registered)
+            return;
+        context.getApplicationContext().registerComponentCallbacks(callbacks);
+        registered = true;
+    }
+
+    /**
+     * Returns a cached SVG or parses it.
+     */
+    @NonNull
+    public static SVG getSvg(@NonNull Resources res, int resId) throws SVGParseException {
+        SVG svg = svgs.get(resId);
+        if (svg == null) {
+            svg = SVG.getFromResource(res, resId);
+            svgs.put(resId, svg);
+        }
+        return svg;
+    }
+
+    /**
+     * @return a cached SVG or null if it hasn't been parsed yet
+     */
+    @Nullable
+    public static SVG peekSvg(int resId) {
+        return svgs.get(resId);
+    }
+
+    /**
+     * Returns a cached rendering of an SVG or renders a new one. Renderings of SVGs not loaded
+     * from resources ({@code resId == 0}) are not cached. Returned bitmaps are shared and mustn't
+     * be modified or recycled.
+     */
+    @NonNull
+    public static Bitmap getBitmap(int resId, @NonNull SVG svg, int width, int height, float density) {
+        if (resId == 0)
+            return render(svg, width, height);
+
+        Key key = new Key(resId, width, height, density);
+        Bitmap bitmap = bitmaps.get(key);
+        if (bitmap == null) {
+            bitmap = render(svg, width, height);
+            bitmaps.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @return a cached rendering or null if there's none
+     */
+    @Nullable
+    public static Bitmap peekBitmap(int resId, int width, int height, float density) {
+        return bitmaps.get(new Key(resId, width, height, density));
+    }
+
+    private static Bitmap render(SVG svg, int width, int height) {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        // SVGs are shared and keep the document size used for rendering
+        synchronized (svg) {
+            svg.setDocumentWidth(width);
+            svg.setDocumentHeight(height);
+            svg.renderToCanvas(new Canvas(bitmap));
+        }
+        return bitmap;
+    }
+
+    public static void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+            bitmaps.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            bitmaps.trimToSize(bitmaps.maxSize() / 2);
+        }
+    }
+
+    /**
+     * @return the number of bytes used by cached renderings
+     */
+    public static int getSize() {
+        return bitmaps.size();
+    }
+
+    public static int getMaxSize() {
+        return bitmaps.maxSize();
+    }
+
+    /**
+     * Sets the raster cache size in bytes.
+     */
+    public static void setMaxSize(int maxSize) {
+        bitmaps.resize(maxSize);
+    }
+
+    public static void setMaxSvgCount(int maxSvgCount) {
+        svgs.resize(maxSvgCount);
+    }
+
+    public static void clear() {
+        svgs.evictAll();
+        bitmaps.evictAll();
+    }
+}
@@ -1,5 +1,7 @@
 package carbon.recycler;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 
 import androidx.annotation.NonNull;
@@ -7,9 +9,11 @@ import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import carbon.view.SelectionMode;
 
@@ -18,9 +22,21 @@ public abstract class ListAdapter<VH extends RecyclerView.ViewHolder, I> extends
     private Map<Class<? extends I>, carbon.widget.RecyclerView.OnItemClickedListener<? extends I>> onItemClickedListeners = new HashMap<>();
     private boolean diff = true;
     private DiffListCallback<I> diffCallback;
+    private boolean detectMoves = true;
+    private Executor diffExecutor;
+    private carbon.widget.RecyclerView.OnDiffCompletedListener onDiffCompletedListener;
+    private Handler handler = new Handler(Looper.getMainLooper());
+    private int diffGeneration = 0;
+    private boolean diffRunning = false;
+    private List<I> pendingItems;
 
     private SelectionMode selectionMode = SelectionMode.NONE;
-    private ArrayList<I> selectedItems;
+    private BitSet selection = new BitSet();
+    private HashMap<I, Integer> positions;
+    private Object indexedItems;
+    private int indexedCount;
+    private SelectionObserver selectionObserver = new SelectionObserver(this, selection, () -> positions = null);
+    private int attachedCount = 0;
 
     public ListAdapter() {
         items = new ArrayList<>();
@@ -45,19 +61,94 @@ public abstract class ListAdapter<VH extends RecyclerView.ViewHolder, I> extends
         this.diffCallback = diffCallback;
     }
 
+    /**
+     * Sets new items. If diff is enabled, the changes are calculated using DiffUtil and dispatched
+     * to the adapter. With a diff executor set, the diff is calculated on that executor and the
+     * items are replaced on the main thread once it's done. Results of diffs made obsolete by
+     * newer items are discarded. If the diff throws, the items are left unchanged and the exception is
+     * rethrown on the executor's thread.
+     */
     public void setItems(@NonNull List<I> items) {
-        setSelectionMode(selectionMode);
         List<I> newItems = new ArrayList<>(items);
+        diffGeneration++;
         if (!diff) {
-            this.items = newItems;
+            replaceItems(newItems);
+            return;
+        }
+        if (diffExecutor != null) {
+            pendingItems = newItems;
+            if (!diffRunning)
+                calculateDiffAsync();
             return;
         }
         if (diffCallback == null)
             diffCallback = new DiffListCallback<>();
         diffCallback.setLists(this.items, newItems);
-        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-        this.items = newItems;
-        diffResult.dispatchUpdatesTo(this);
+        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback, detectMoves);
+        selectionObserver.setPaused(true);
+        try {
+            replaceItems(newItems);
+            diffResult.dispatchUpdatesTo(this);
+        } finally {
+            selectionObserver.setPaused(false);
+        }
+        if (onDiffCompletedListener != null)
+            onDiffCompletedListener.onDiffCompleted();
+    }
+
+    private void calculateDiffAsync() {
+        // only one diff runs at a time, so the callback is never used by two threads
+        final List<I> oldItems = this.items, newItems = pendingItems;
+        final int generation = diffGeneration;
+        final boolean detectMoves = this.detectMoves;
+        pendingItems = null;
+        diffRunning = true;
+        if (diffCallback == null)
+            diffCallback = new DiffListCallback<>();
+        final DiffListCallback<I> callback = diffCallback;
+        callback.setLists(oldItems, newItems);
+        try {
+            diffExecutor.execute(() -> {
+                DiffUtil.DiffResult diffResult;
+                try {
+                    diffResult = DiffUtil.calculateDiff(callback, detectMoves);
+                } catch (RuntimeException e) {
+                    handler.post(this::onDiffFailed);
+                    throw e;
+                }
+                handler.post(() -> {
+                    diffRunning = false;
+                    if (generation == diffGeneration && this.items == oldItems) {
+                        selectionObserver.setPaused(true);
+                        try {
+                            replaceItems(newItems);
+                            diffResult.dispatchUpdatesTo(this);
+                        } finally {
+                            selectionObserver.setPaused(false);
+                        }
+                        if (onDiffCompletedListener != null)
+                            onDiffCompletedListener.onDiffCompleted();
+                    } else if (generation == diffGeneration) {
+                        // items were replaced while diffing, the diff has to be calculated again
+                        pendingItems = newItems;
+                        calculateDiffAsync();
+                    } else if (pendingItems != null) {
+                        calculateDiffAsync();
+                    }
+                });
+            });
+        } catch (RuntimeException e) {
+            diffRunning = false;
+            if (pendingItems == null && generation == diffGeneration)
+                pendingItems = newItems;
+            throw e;
+        }
+    }
+
+    private void onDiffFailed() {
+        diffRunning = false;
+        if (pendingItems != null)
+            calculateDiffAsync();
     }
 
     public List<I> getItems() {
@@ -112,19 +203,58 @@ public abstract class ListAdapter<VH extends RecyclerView.ViewHolder, I> extends
         return diff;
     }
 
+    public void setDetectMovesEnabled(boolean detectMoves) {
+        this.detectMoves = detectMoves;
+    }
+
+    public boolean isDetectMovesEnabled() {
+        return detectMoves;
+    }
+
+    /**
+     * Sets the executor used to calculate diffs. If null, diffs are calculated synchronously.
+     */
+    public void setDiffExecutor(Executor diffExecutor) {
+        this.diffExecutor = diffExecutor;
+    }
+
+    public Executor getDiffExecutor() {
+        return diffExecutor;
+    }
+
+    public void setOnDiffCompletedListener(carbon.widget.RecyclerView.OnDiffCompletedListener onDiffCompletedListener) {
+        this.onDiffCompletedListener = onDiffCompletedListener;
+    }
+
     @Override
     public void onBindViewHolder(final VH holder, final int position) {
         holder.itemView.setOnClickListener(view -> fireOnItemClickedEvent(holder.itemView, holder.getAdapterPosition()));
     }
 
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        // registered here and not in the constructor to keep setHasStableIds() usable,
+        // changes made while detached weren't observed, so the selection out of bounds is dropped
+        if (attachedCount++ == 0) {
+            positions = null;
+            if (selection.length() > items.size())
+                selection.clear(items.size(), selection.length());
+            registerAdapterDataObserver(selectionObserver);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (--attachedCount == 0)
+            unregisterAdapterDataObserver(selectionObserver);
+    }
+
     @Override
     public void setSelectionMode(@NonNull SelectionMode selectionMode) {
         this.selectionMode = selectionMode;
-        if (selectionMode == SelectionMode.NONE) {
-            selectedItems = null;
-        } else {
-            selectedItems = new ArrayList<>();
-        }
+        selection.clear();
     }
 
     @Override
@@ -132,55 +262,139 @@ public abstract class ListAdapter<VH extends RecyclerView.ViewHolder, I> extends
         return selectionMode;
     }
 
+    @Override
+    public boolean isSelected(int position) {
+        return selectionMode != SelectionMode.NONE && selection.get(position);
+    }
+
     @Override
     public void setSelectedIndices(List<Integer> selectedIndices) {
-        this.selectedItems.clear();
+        selection.clear();
         for (int index : selectedIndices)
-            selectedItems.add(items.get(index));
+            selection.set(index);
         notifyDataSetChanged();
     }
 
     @Override
     public List<Integer> getSelectedIndices() {
-        ArrayList<Integer> selectedIndices = new ArrayList<>();
-        for (I item : selectedItems)
-            selectedIndices.add(items.indexOf(item));
+        ArrayList<Integer> selectedIndices = new ArrayList<>(selection.cardinality());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1))
+            selectedIndices.add(i);
         return selectedIndices;
     }
 
+    @Override
+    public void setSelectedPositions(@NonNull int[] positions) {
+        selection.clear();
+        for (int position : positions)
+            selection.set(position);
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public int[] getSelectedPositions() {
+        int[] positions = new int[selection.cardinality()];
+        for (int i = selection.nextSetBit(0), j = 0; i >= 0; i = selection.nextSetBit(i + 1), j++)
+            positions[j] = i;
+        return positions;
+    }
+
     @Override
     public void setSelectedItems(List<I> selectedItems) {
-        this.selectedItems.clear();
-        this.selectedItems.addAll(selectedItems);
+        selection.clear();
+        for (I item : selectedItems) {
+            int index = indexOf(item);
+            if (index != -1)
+                selection.set(index);
+        }
         notifyDataSetChanged();
     }
 
+    /**
+     * @return selected items in adapter order or null if selection is disabled
+     */
     @Override
     public List<I> getSelectedItems() {
+        if (selectionMode == SelectionMode.NONE)
+            return null;
+        ArrayList<I> selectedItems = new ArrayList<>(selection.cardinality());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1))
+            selectedItems.add(items.get(i));
         return selectedItems;
     }
 
     @Override
     public void selectItem(I item) {
+        int selectedIndex = indexOf(item);
+        if (selectedIndex == -1)
+            return;
         if (selectionMode == SelectionMode.SINGLE) {
-            if (selectedItems.size() > 0) {
-                int deselectedIndex = items.indexOf(selectedItems.get(0));
-                selectedItems.clear();
+            int deselectedIndex = selection.nextSetBit(0);
+            if (deselectedIndex != -1) {
+                selection.clear(deselectedIndex);
                 notifyItemChanged(deselectedIndex, false);
             }
-            int selectedIndex = items.indexOf(item);
-            selectedItems.add(item);
+            selection.set(selectedIndex);
             notifyItemChanged(selectedIndex, true);
         } else if (selectionMode == SelectionMode.MULTI) {
-            int indexOfSelectedIndex = selectedItems.indexOf(item);
-            int selectedIndex = items.indexOf(item);
-            if (indexOfSelectedIndex != -1) {
-                selectedItems.remove(item);
+            if (selection.get(selectedIndex)) {
+                selection.clear(selectedIndex);
                 notifyItemChanged(selectedIndex, false);
             } else {
-                selectedItems.add(item);
+                selection.set(selectedIndex);
                 notifyItemChanged(selectedIndex, true);
             }
         }
     }
+
+    /**
+     * Selects all items. Works only in {@link SelectionMode#MULTI}.
+     */
+    public void selectAll() {
+        if (selectionMode != SelectionMode.MULTI)
+            return;
+        selection.set(0, items.size());
+        notifyItemRangeChanged(0, items.size(), true);
+    }
+
+    @Override
+    public void clearSelection() {
+        if (selection.isEmpty())
+            return;
+        int first = selection.nextSetBit(0), last = selection.length() - 1;
+        selection.clear();
+        notifyItemRangeChanged(first, last - first + 1, false);
+    }
+
+    private void replaceItems(List<I> newItems) {
+        if (selection.isEmpty()) {
+            this.items = newItems;
+            return;
+        }
+        // keep selected items selected at their new positions
+        ArrayList<I> selectedItems = new ArrayList<>(selection.cardinality());
+        for (int i = selection.nextSetBit(0); i >= 0 && i < items.size(); i = selection.nextSetBit(i + 1))
+            selectedItems.add(items.get(i));
+        this.items = newItems;
+        selection.clear();
+        for (I item : selectedItems) {
+            int index = indexOf(item);
+            if (index != -1)
+                selection.set(index);
+        }
+    }
+
+    private int indexOf(I item) {
+        if (positions == null || indexedItems != items || indexedCount != items.size()) {
+            // first occurrence wins, like in List.indexOf()
+            positions = new HashMap<>(items.size());
+            for (int i = items.size() - 1; i >= 0; i--)
+                positions.put(items.get(i), i);
+            indexedItems = items;
+            indexedCount = items.size();
+        }
+        Integer position = positions.get(item);
+        return position != null ? position : -1;
+    }
 }
@@ -4,6 +4,7 @@ import android.util.SparseArray;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.HashMap;
 import java.util.List;
@@ -43,11 +44,29 @@ public class RowArrayAdapter<Type> extends ArrayAdapter<RowViewHolder<Type>, Typ
     }
 
     public <ItemType extends Type, FactoryType extends Type> void putFactory(Class<ItemType> type, ItemTransformer<ItemType, FactoryType> transformer, RowFactory<FactoryType> factory) {
-        int viewType = types.size();
-        factories.put(viewType, new RowDescriptor<>(transformer, factory));
+        RowDescriptor<ItemType, FactoryType> descriptor = new RowDescriptor<>(transformer, factory);
+        int viewType = RowDescriptor.getViewType(descriptor);
+        factories.put(viewType, descriptor);
         types.put(type, viewType);
     }
 
+    /**
+     * Creates components for the given item type and puts them into the recycler's view pool, so
+     * the first scroll doesn't stall on inflation. Components are created on the main thread, one
+     * whenever its message queue is idle. Raises the pool's limit for that view type to count.
+     * Should be called on the main thread, after setting this adapter to the recycler.
+     */
+    public void prewarm(@NonNull RecyclerView recyclerView, @NonNull Class<? extends Type> type, int count) {
+        Integer viewType = types.get(type);
+        if (viewType == null)
+            throw new IllegalArgumentException("No factory for type " + type.getName());
+        prewarm(recyclerView, viewType, count);
+    }
+
+    public void prewarm(@NonNull RecyclerView recyclerView, int viewType, int count) {
+        RowPrewarmer.prewarm(this, recyclerView, viewType, count);
+    }
+
     @Override
     public RowViewHolder<Type> onCreateViewHolder(ViewGroup viewGroup, int viewType) {
         Component<Type> component = (Component<Type>) factories.get(viewType).factory.create(viewGroup);
@@ -62,7 +81,7 @@ public class RowArrayAdapter<Type> extends ArrayAdapter<RowViewHolder<Type>, Typ
         ItemTransformer transformer = factories.get(getItemViewType(position)).transformer;
         component.bind((Type) transformer.transform(data));
         if (getSelectionMode() != SelectionMode.NONE)
-            component.getView().setSelected(getSelectedIndices().contains(position));
+            component.getView().setSelected(isSelected(position));
     }
 
     @Override
@@ -73,7 +92,7 @@ public class RowArrayAdapter<Type> extends ArrayAdapter<RowViewHolder<Type>, Typ
         ItemTransformer transformer = factories.get(getItemViewType(position)).transformer;
         component.bind((Type) transformer.transform(data));
         if (getSelectionMode() != SelectionMode.NONE)
-            component.getView().setSelected(getSelectedIndices().contains(position));
+            component.getView().setSelected(isSelected(position));
     }
 
     @Override
@@ -1,8 +1,20 @@
 package carbon.recycler;
 
+import java.util.WeakHashMap;
+
 import carbon.component.ItemTransformer;
 
 class RowDescriptor<TypeFrom, TypeTo> {
+    /**
+     * Row view types are allocated from a reserved range, so they don't collide with view types of
+     * other adapters sharing a pool, which usually start at 0.
+     */
+    static final int FIRST_VIEW_TYPE = 0x40000000;
+
+    // view types are unique across adapters, so adapters using the same factories can share a pool
+    private static final WeakHashMap<RowDescriptor<?, ?>, Integer> viewTypes = new WeakHashMap<>();
+    private static int nextViewType = FIRST_VIEW_TYPE;
+
     ItemTransformer<TypeFrom, TypeTo> transformer;
     RowFactory<TypeTo> factory;
 
@@ -10,4 +22,28 @@ class RowDescriptor<TypeFrom, TypeTo> {
         this.transformer = transformer;
         this.factory = factory;
     }
+
+    static synchronized int getViewType(RowDescriptor<?, ?> descriptor) {
+        Integer viewType = viewTypes.get(descriptor);
+        if (viewType == null) {
+            viewType = nextViewType++;
+            viewTypes.put(descriptor, viewType);
+        }
+        return viewType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof RowDescriptor))
+            return false;
+        RowDescriptor<?, ?> that = (RowDescriptor<?, ?>) o;
+        return transformer == that.transformer && factory == that.factory;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(transformer) + System.identityHashCode(factory);
+    }
 }
@@ -0,0 +1,75 @@
+package carbon.recycler;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.SparseIntArray;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.WeakHashMap;
+
+/**
+ * Creates view holders ahead of time and puts them into a recycler's view pool. Holders are
+ * created on the main thread, one each time its message queue becomes idle, so prewarming doesn't
+ * delay input handling or drawing. View creation may need a Looper (Handlers, data binding), so it
+ * isn't moved off the main thread. Pools may be shared, so their size limits are only raised.
+ */
+class RowPrewarmer {
+    // the pool's default limit of recycled views per type
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    private static final Handler handler = new Handler(Looper.getMainLooper());
+    private static final WeakHashMap<RecyclerView.RecycledViewPool, SparseIntArray> maxRecycledViews = new WeakHashMap<>();
+
+    private RowPrewarmer() {
+    }
+
+    static void prewarm(RecyclerView.Adapter<?> adapter, RecyclerView recyclerView, int viewType, int count) {
+        RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        int missing = count - pool.getRecycledViewCount(viewType);
+        if (missing <= 0)
+            return;
+        raiseMaxRecycledViews(pool, viewType, count);
+
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            private int remaining = missing;
+
+            @Override
+            public boolean queueIdle() {
+                // the adapter was replaced or the recycler filled the pool itself
+                if (recyclerView.getAdapter() != adapter || pool.getRecycledViewCount(viewType) >= count)
+                    return false;
+                RecyclerView.ViewHolder holder;
+                try {
+                    holder = adapter.createViewHolder(recyclerView, viewType);
+                } catch (RuntimeException e) {
+                    // rethrown outside of the idle handler, which would only log it
+                    handler.post(() -> {
+                        throw e;
+                    });
+                    return false;
+                }
+                pool.putRecycledView(holder);
+                return --remaining > 0;
+            }
+        });
+    }
+
+    /**
+     * Raises the pool's limit for the view type to at least the given count. The pool doesn't
+     * expose its limits, so limits set here are remembered and never lowered.
+     */
+    private static void raiseMaxRecycledViews(RecyclerView.RecycledViewPool pool, int viewType, int count) {
+        SparseIntArray limits = maxRecycledViews.get(pool);
+        if (limits == null) {
+            limits = new SparseIntArray();
+            maxRecycledViews.put(pool, limits);
+        }
+        int max = limits.get(viewType, DEFAULT_MAX_RECYCLED_VIEWS);
+        if (count <= max)
+            return;
+        limits.put(viewType, count);
+        pool.setMaxRecycledViews(viewType, count);
+    }
+}
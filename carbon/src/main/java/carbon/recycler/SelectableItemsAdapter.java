@@ -2,6 +2,7 @@ package carbon.recycler;
 
 import androidx.annotation.NonNull;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import carbon.view.SelectionMode;
@@ -11,13 +12,37 @@ public interface SelectableItemsAdapter<I> {
 
     SelectionMode getSelectionMode();
 
+    default boolean isSelected(int position) {
+        return getSelectionMode() != SelectionMode.NONE && getSelectedIndices().contains(position);
+    }
+
     void setSelectedIndices(List<Integer> selectedIndices);
 
     List<Integer> getSelectedIndices();
 
+    default void setSelectedPositions(@NonNull int[] positions) {
+        ArrayList<Integer> selectedIndices = new ArrayList<>(positions.length);
+        for (int position : positions)
+            selectedIndices.add(position);
+        setSelectedIndices(selectedIndices);
+    }
+
+    @NonNull
+    default int[] getSelectedPositions() {
+        List<Integer> selectedIndices = getSelectedIndices();
+        int[] positions = new int[selectedIndices.size()];
+        for (int i = 0; i < positions.length; i++)
+            positions[i] = selectedIndices.get(i);
+        return positions;
+    }
+
     void setSelectedItems(List<I> selectedItems);
 
     List<I> getSelectedItems();
 
     void selectItem(I item);
+
+    default void clearSelection() {
+        setSelectedIndices(new ArrayList<>());
+    }
 }
@@ -0,0 +1,91 @@
+package carbon.recycler;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.BitSet;
+
+/**
+ * Keeps a position based selection in sync with changes made to an adapter's items in place and
+ * reported with notifyItem*() and notifyDataSetChanged(). Each notification also drops the
+ * adapter's item index.
+ */
+class SelectionObserver extends RecyclerView.AdapterDataObserver {
+    private final RecyclerView.Adapter adapter;
+    private final BitSet selection;
+    private final Runnable invalidateIndex;
+    private boolean paused = false;
+
+    SelectionObserver(RecyclerView.Adapter adapter, BitSet selection, Runnable invalidateIndex) {
+        this.adapter = adapter;
+        this.selection = selection;
+        this.invalidateIndex = invalidateIndex;
+    }
+
+    /**
+     * Pauses shifting of the selection. Used while dispatching diffs of items, which have their
+     * selection already moved.
+     */
+    void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    @Override
+    public void onChanged() {
+        invalidateIndex.run();
+        if (paused)
+            return;
+        // positions can't be tracked, only the selection out of bounds is dropped
+        int itemCount = adapter.getItemCount();
+        if (selection.length() > itemCount)
+            selection.clear(itemCount, selection.length());
+    }
+
+    @Override
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        invalidateIndex.run();
+    }
+
+    @Override
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        invalidateIndex.run();
+        if (!paused)
+            insert(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        invalidateIndex.run();
+        if (!paused)
+            remove(positionStart, itemCount);
+    }
+
+    @Override
+    public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+        invalidateIndex.run();
+        if (paused)
+            return;
+        BitSet moved = selection.get(fromPosition, fromPosition + itemCount);
+        remove(fromPosition, itemCount);
+        insert(toPosition, itemCount);
+        for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1))
+            selection.set(toPosition + i);
+    }
+
+    private void insert(int positionStart, int itemCount) {
+        if (positionStart >= selection.length())
+            return;
+        BitSet tail = selection.get(positionStart, selection.length());
+        selection.clear(positionStart, selection.length());
+        for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1))
+            selection.set(positionStart + itemCount + i);
+    }
+
+    private void remove(int positionStart, int itemCount) {
+        if (positionStart >= selection.length())
+            return;
+        BitSet tail = selection.get(positionStart + itemCount, Math.max(selection.length(), positionStart + itemCount));
+        selection.clear(positionStart, selection.length());
+        for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1))
+            selection.set(positionStart + i);
+    }
+}
@@ -0,0 +1,24 @@
+package carbon.view
+
+/**
+ * Strategy used to clip a view's content to its shape and circular reveal when the clipping can't
+ * be done with the view's outline.
+ */
+enum class ShapeClipMode {
+    /**
+     * Uses clipPath for shapes with straight edges only (cut corners) and an offscreen layer otherwise.
+     */
+    AUTO,
+
+    /**
+     * Draws to an offscreen layer and clears the area outside of the shape. Anti-aliased, but
+     * allocates a layer every frame.
+     */
+    LAYER,
+
+    /**
+     * Clips the canvas with the shape's path. Doesn't need an offscreen layer, but the edges are
+     * not anti-aliased.
+     */
+    CLIP_PATH
+}
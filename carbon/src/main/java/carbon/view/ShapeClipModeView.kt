@@ -0,0 +1,5 @@
+package carbon.view
+
+interface ShapeClipModeView {
+    var shapeClipMode: ShapeClipMode
+}
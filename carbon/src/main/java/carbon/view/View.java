@@ -8,9 +8,7 @@ import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Outline;
 import android.graphics.Paint;
@@ -56,7 +54,11 @@ import carbon.animation.AnimatedView;
 import carbon.animation.StateAnimator;
 import carbon.drawable.ripple.RippleDrawable;
 import carbon.drawable.ripple.RippleView;
+import carbon.internal.EditModeLayer;
+import carbon.internal.ElevationDrawingOrder;
+import carbon.internal.ParentInvalidator;
 import carbon.internal.RevealAnimator;
+import carbon.internal.ShadowCache;
 import carbon.widget.Label;
 import carbon.widget.OnTransformationChangedListener;
 import carbon.widget.PopupWindow;
@@ -72,6 +74,7 @@ public abstract class View extends android.view.View
         StateAnimatorView,
         AnimatedView,
         ShapeModelView,
+        ShapeClipModeView,
         TintedView,
         StrokeView,
         MaxSizeView,
@@ -141,7 +144,8 @@ public abstract class View extends android.view.View
             R.styleable.View_carbon_cornerCutTopEnd,
             R.styleable.View_carbon_cornerCutBottomStart,
             R.styleable.View_carbon_cornerCutBottomEnd,
-            R.styleable.View_carbon_cornerCut
+            R.styleable.View_carbon_cornerCut,
+            R.styleable.View_carbon_shapeClipMode
     };
     private static int[] maxSizeIds = new int[]{
             R.styleable.View_carbon_maxWidth,
@@ -172,6 +176,7 @@ public abstract class View extends android.view.View
     }
 
     RevealAnimator revealAnimator;
+    private EditModeLayer editModeLayer;
 
     public Point getLocationOnScreen() {
         int[] outLocation = new int[2];
@@ -269,6 +274,18 @@ public abstract class View extends android.view.View
             postInvalidate();
     }
 
+    @NotNull
+    @Override
+    public ShapeClipMode getShapeClipMode() {
+        return shapeClipMode;
+    }
+
+    @Override
+    public void setShapeClipMode(@NotNull ShapeClipMode shapeClipMode) {
+        this.shapeClipMode = shapeClipMode;
+        postInvalidate();
+    }
+
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         super.onLayout(changed, left, top, right, bottom);
@@ -327,45 +344,43 @@ public abstract class View extends android.view.View
         }
 
         if (isInEditMode() && (r || c) && getWidth() > 0 && getHeight() > 0) {
-            Bitmap layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas layerCanvas = new Canvas(layer);
-            drawInternal(layerCanvas);
-
-            Bitmap mask = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas maskCanvas = new Canvas(mask);
-            Paint maskPaint = new Paint(0xffffffff);
-            maskCanvas.drawPath(cornersMask, maskPaint);
-
-            for (int x = 0; x < getWidth(); x++) {
-                for (int y = 0; y < getHeight(); y++) {
-                    int maskPixel = mask.getPixel(x, y);
-                    layer.setPixel(x, y, Color.alpha(maskPixel) > 0 ? layer.getPixel(x, y) : 0);
-                }
-            }
-            canvas.drawBitmap(layer, 0, 0, paint);
+            if (editModeLayer == null)
+                editModeLayer = new EditModeLayer();
+            drawInternal(editModeLayer.begin(getWidth(), getHeight()));
+            editModeLayer.drawMasked(canvas, cornersMask);
         } else if (getWidth() > 0 && getHeight() > 0 && (((r || c) && !Carbon.IS_LOLLIPOP_OR_HIGHER) || !shapeModel.isRoundRect(boundsRect))) {
-            int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
-
-            if (r) {
-                int saveCount2 = canvas.save();
-                canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+            if (Carbon.shouldClipPath(shapeClipMode, canvas, shapeModel, boundsRect, r)) {
+                int saveCount = canvas.save();
+                if (c)
+                    Carbon.clipPath(canvas, cornersMask);
+                if (r)
+                    Carbon.clipPath(canvas, revealAnimator.mask);
                 drawInternal(canvas);
-                canvas.restoreToCount(saveCount2);
+                canvas.restoreToCount(saveCount);
             } else {
-                drawInternal(canvas);
-            }
+                int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
+
+                if (r) {
+                    int saveCount2 = canvas.save();
+                    canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+                    drawInternal(canvas);
+                    canvas.restoreToCount(saveCount2);
+                } else {
+                    drawInternal(canvas);
+                }
 
-            paint.setXfermode(Carbon.CLEAR_MODE);
-            if (c) {
-                cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
-                canvas.drawPath(cornersMask, paint);
-            }
-            if (r)
-                canvas.drawPath(revealAnimator.mask, paint);
-            paint.setXfermode(null);    // TODO check if this is needed
+                paint.setXfermode(Carbon.CLEAR_MODE);
+                if (c) {
+                    cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
+                    canvas.drawPath(cornersMask, paint);
+                }
+                if (r)
+                    canvas.drawPath(revealAnimator.mask, paint);
+                paint.setXfermode(null);    // TODO check if this is needed
 
-            canvas.restoreToCount(saveCount);
-            paint.setXfermode(null);
+                canvas.restoreToCount(saveCount);
+                paint.setXfermode(null);
+            }
         } else {
             drawInternal(canvas);
         }
@@ -446,11 +461,11 @@ public abstract class View extends android.view.View
         if (getParent() == null || !(getParent() instanceof android.view.View))
             return;
 
-        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless)
-            ((android.view.View) getParent()).invalidate();
-
-        if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect))
-            ((android.view.View) getParent()).invalidate();
+        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless) {
+            ParentInvalidator.invalidateParent(this);
+        } else if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect)) {
+            ParentInvalidator.invalidate(this, elevation + translationZ);
+        }
     }
 
     @Override
@@ -504,6 +519,7 @@ public abstract class View extends android.view.View
     private float elevation = 0;
     private float translationZ = 0;
     private ShapeAppearanceModel shapeModel = new ShapeAppearanceModel();
+    private ShapeClipMode shapeClipMode = ShapeClipMode.AUTO;
     private MaterialShapeDrawable shadowDrawable = new MaterialShapeDrawable(shapeModel);
     private ColorStateList ambientShadowColor, spotShadowColor;
 
@@ -528,6 +544,8 @@ public abstract class View extends android.view.View
         } else if (elevation != this.elevation && getParent() != null) {
             ((android.view.View) getParent()).postInvalidate();
         }
+        if (elevation != this.elevation)
+            ElevationDrawingOrder.onElevationChanged(this);
         this.elevation = elevation;
     }
 
@@ -550,6 +568,7 @@ public abstract class View extends android.view.View
         } else if (translationZ != this.translationZ && getParent() != null) {
             ((android.view.View) getParent()).postInvalidate();
         }
+        ElevationDrawingOrder.onElevationChanged(this);
         this.translationZ = translationZ;
     }
 
@@ -575,8 +594,12 @@ public abstract class View extends android.view.View
         boolean maskShadow = getBackground() != null && alpha != 1;
         boolean r = revealAnimator != null && revealAnimator.isRunning();
 
-        if (alpha != 255) {
-            paint.setAlpha((int) (127 * alpha));
+        int shadowColor = spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000;
+        ShadowCache.Shadow shadow = ShadowCache.get(shadowDrawable, spotShadowColor, shadowColor, z, getWidth(), getHeight());
+        boolean layer = maskShadow || r || shadow == null;
+
+        paint.setAlpha((int) (127 * alpha));
+        if (layer) {
             saveCount = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), paint, Canvas.ALL_SAVE_FLAG);
         } else {
             saveCount = canvas.save();
@@ -590,13 +613,18 @@ public abstract class View extends android.view.View
                     getLeft() + revealAnimator.x + revealAnimator.radius, getTop() + revealAnimator.y + revealAnimator.radius);
         }
 
-        shadowDrawable.setFillColor(spotShadowColor);
-        shadowDrawable.setShadowColor(spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000);
-        shadowDrawable.setAlpha(0x44);
-        shadowDrawable.setElevation(z);
-        shadowDrawable.setShadowVerticalOffset(0);
-        shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
-        shadowDrawable.draw(canvas);
+        if (shadow != null) {
+            // without a layer the bitmap is drawn with the shadow's alpha
+            canvas.drawBitmap(shadow.bitmap, getLeft() - shadow.padding, (int) (getTop() + z / 4) - shadow.padding, layer ? null : paint);
+        } else {
+            shadowDrawable.setFillColor(spotShadowColor);
+            shadowDrawable.setShadowColor(shadowColor);
+            shadowDrawable.setAlpha(0x44);
+            shadowDrawable.setElevation(z);
+            shadowDrawable.setShadowVerticalOffset(0);
+            shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
+            shadowDrawable.draw(canvas);
+        }
 
         canvas.translate(this.getLeft(), this.getTop());
         canvas.concat(matrix);
@@ -4,6 +4,8 @@ import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.Spannable;
 import android.text.SpannableStringBuilder;
@@ -14,11 +16,12 @@ import android.util.AttributeSet;
 import android.view.inputmethod.EditorInfo;
 
 import androidx.annotation.NonNull;
+import androidx.core.os.CancellationSignal;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import carbon.view.SimpleTextWatcher;
 
@@ -30,6 +33,7 @@ import carbon.view.SimpleTextWatcher;
 public class AutoCompleteEditText extends SearchEditText {
 
     public static final int FILTERING_START = 0, FILTERING_PARTIAL = 1;
+    public static final int DEFAULT_MAX_RESULTS = 10;
 
     private boolean autoCompleting = false;
     private int prevOptions;
@@ -87,6 +91,13 @@ public class AutoCompleteEditText extends SearchEditText {
     protected TextWatcher autoCompleteTextWatcher;
     SearchAdapter dataProvider;
 
+    private int maxResults = DEFAULT_MAX_RESULTS;
+    private Handler handler = new Handler(Looper.getMainLooper());
+    private final Object indexLock = new Object();
+    private SearchIndex completionIndex;
+    private int completionIndexGeneration = 0;
+    private CancellationSignal completionSignal;
+
     public AutoCompleteEditText(Context context) {
         super(context);
         initAutoCompleteEditText();
@@ -116,6 +127,31 @@ public class AutoCompleteEditText extends SearchEditText {
 
     public void setDataProvider(SearchAdapter dataProvider) {
         this.dataProvider = dataProvider;
+        invalidateSearchIndex();
+    }
+
+    @Override
+    public void invalidateSearchIndex() {
+        super.invalidateSearchIndex();
+        synchronized (indexLock) {
+            completionIndex = null;
+            completionIndexGeneration++;
+        }
+    }
+
+    /**
+     * Sets the maximum number of completions. Only the best completions are found and highlighted.
+     *
+     * @param maxResults has to be at least 1
+     */
+    public void setMaxResults(int maxResults) {
+        if (maxResults < 1)
+            throw new IllegalArgumentException("maxResults must be at least 1, was " + maxResults);
+        this.maxResults = maxResults;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
     }
 
     private void initAutoCompleteEditText() {
@@ -174,16 +210,59 @@ public class AutoCompleteEditText extends SearchEditText {
         }
 
         Word currentWord = getCurrentWord();
+        if (completionSignal != null) {
+            completionSignal.cancel();
+            completionSignal = null;
+        }
         if (currentWord == null || currentWord.length() == 0) {
             fireOnFilterEvent(null);
             return;
         }
 
-        autoCompleting = true;
-        filter(currentWord);
+        Executor executor = getSearchExecutor();
+        if (executor == null) {
+            autoCompleting = true;
+            filter(currentWord);
+            applyCompletions(currentWord);
+            autoCompleting = false;
+            return;
+        }
+
+        // completions are found in the background and applied if the text didn't change meanwhile,
+        // the adapter is read only here, the index is built from a copy of its items
+        final SearchAdapter adapter = dataProvider;
+        final SearchIndex currentIndex = getCompletionIndex(adapter);
+        final List items = currentIndex == null ? SearchIndex.getItems(adapter) : null;
+        final int generation = completionIndexGeneration;
+        final String requestedText = text.toString();
+        final int maxResults = this.maxResults;
+        final CancellationSignal signal = new CancellationSignal();
+        completionSignal = signal;
+        executor.execute(() -> {
+            SearchIndex index = currentIndex != null ? currentIndex : buildCompletionIndex(adapter, items, generation);
+            int[] tokens = index.complete(currentWord.preCursor, currentWord.postCursor, maxResults, signal);
+            if (tokens == null || signal.isCanceled())
+                return;
+            handler.post(() -> {
+                if (signal != completionSignal)
+                    return;
+                completionSignal = null;
+                if (adapter != dataProvider || !requestedText.equals(getText().toString()) || getSelectionStart() != selStart || getSelectionEnd() != selStart)
+                    return;
+                autoCompleting = true;
+                setFilteredItems(index, currentWord, tokens);
+                applyCompletions(currentWord);
+                autoCompleting = false;
+            });
+        });
+    }
+
+    private void applyCompletions(Word currentWord) {
         fireOnFilterEvent(filteredItems);
 
         if (filteredItems.size() != 0 && filteredItems.get(0).type == FILTERING_START) {
+            Editable text = getText();
+            int selStart = getSelectionStart();
             String word = filteredItems.get(0).text.toString();
             String remainingPart = word.substring(currentWord.preCursor.length());
             text.insert(selStart, remainingPart);
@@ -192,8 +271,35 @@ public class AutoCompleteEditText extends SearchEditText {
             text.setSpan(span, selStart, selStart + remainingPart.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
             AutoCompleteEditText.super.setImeOptions(EditorInfo.IME_ACTION_DONE);
         }
+    }
 
-        autoCompleting = false;
+    /**
+     * @return the completion index or null if it has to be built
+     */
+    private SearchIndex getCompletionIndex(SearchAdapter adapter) {
+        synchronized (indexLock) {
+            if (completionIndex == null || completionIndex.getAdapter() != adapter || completionIndex.getItemCount() != adapter.getItemCount())
+                return null;
+            return completionIndex;
+        }
+    }
+
+    private SearchIndex buildCompletionIndex(SearchAdapter adapter, List items, int generation) {
+        SearchIndex index;
+        synchronized (indexLock) {
+            index = completionIndex;
+        }
+        if (index != null && index.getAdapter() == adapter && index.getItemCount() == items.size())
+            return index;
+
+        // built without holding the lock, the main thread takes it in getCompletionIndex()
+        index = new SearchIndex(adapter, items, false);
+        synchronized (indexLock) {
+            // an index invalidated in the meantime may be built from outdated items
+            if (generation == completionIndexGeneration)
+                completionIndex = index;
+        }
+        return index;
     }
 
     private void fireOnFilterEvent(List<FilterResult> filteredItems) {
@@ -300,32 +406,30 @@ public class AutoCompleteEditText extends SearchEditText {
         if (word.length() == 0)
             return;
 
-        String preCursor = word.preCursor.toLowerCase();
-        for (int i = 0; i < dataProvider.getItemCount(); i++) {
-            String[] itemWords = dataProvider.getItemWords(i);
-            matchItem(word, preCursor, i, itemWords);
-        }
-        Collections.sort(filteredItems);
+        SearchIndex index = getCompletionIndex(dataProvider);
+        if (index == null)
+            index = buildCompletionIndex(dataProvider, SearchIndex.getItems(dataProvider), completionIndexGeneration);
+        setFilteredItems(index, word, index.complete(word.preCursor, word.postCursor, maxResults, null));
     }
 
-    private void matchItem(Word word, String preCursor, int i, String[] itemWords) {
-        for (int j = 0; j < itemWords.length; j++) {
-            String itemText = itemWords[j];
-            if (itemText.length() == word.length())
-                continue;
-            itemText = itemText.toLowerCase();
-            if (itemText.indexOf(preCursor) == 0 && word.postCursor.length() == 0) {
+    /**
+     * Creates results with highlighted hints for the found tokens. Spans are created only for
+     * the results that are going to be displayed.
+     */
+    private void setFilteredItems(SearchIndex index, Word word, int[] tokens) {
+        filteredItems.clear();
+        String prefix = SearchIndex.normalize(word.preCursor, false);
+        for (int token : tokens) {
+            String itemText = index.getWord(token).toLowerCase();
+            Object item = index.getItem(index.getTokenItem(token));
+            if (word.postCursor.length() == 0 && index.getToken(token).startsWith(prefix)) {
                 Spannable spannable = new SpannableStringBuilder(itemText);
-                spannable.setSpan(new HintSpan(getCurrentHintTextColor()), preCursor.length(), itemText.length(),
+                spannable.setSpan(new HintSpan(getCurrentHintTextColor()), Math.min(word.preCursor.length(), itemText.length()), itemText.length(),
                         Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
-                filteredItems.add(new FilterResult(AutoCompleteEditText.FILTERING_START, spannable, dataProvider.getItem(i)));
-                return;
+                filteredItems.add(new FilterResult(AutoCompleteEditText.FILTERING_START, spannable, item));
             } else {
                 Spannable spannable = partialMatch(itemText, word);
-                if (spannable != null) {
-                    filteredItems.add(new FilterResult(AutoCompleteEditText.FILTERING_PARTIAL, spannable, dataProvider.getItem(i)));
-                    return;
-                }
+                filteredItems.add(new FilterResult(AutoCompleteEditText.FILTERING_PARTIAL, spannable != null ? spannable : new SpannableStringBuilder(itemText), item));
             }
         }
     }
@@ -8,9 +8,7 @@ import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Outline;
 import android.graphics.Paint;
@@ -69,7 +67,12 @@ import carbon.animation.StateAnimator;
 import carbon.drawable.UnderlineDrawable;
 import carbon.drawable.ripple.RippleDrawable;
 import carbon.drawable.ripple.RippleView;
+import carbon.internal.EditModeLayer;
+import carbon.internal.ElevationDrawingOrder;
+import carbon.internal.ParentInvalidator;
 import carbon.internal.RevealAnimator;
+import carbon.internal.ShadowCache;
+import carbon.internal.TextSizeFitter;
 import carbon.view.AllCapsTransformationMethod;
 import carbon.view.AutoSizeTextView;
 import carbon.view.InputView;
@@ -77,6 +80,8 @@ import carbon.view.MarginView;
 import carbon.view.MaxSizeView;
 import carbon.view.RevealView;
 import carbon.view.ShadowView;
+import carbon.view.ShapeClipMode;
+import carbon.view.ShapeClipModeView;
 import carbon.view.ShapeModelView;
 import carbon.view.SimpleTextWatcher;
 import carbon.view.StateAnimatorView;
@@ -96,6 +101,7 @@ public class EditText extends android.widget.EditText
         StateAnimatorView,
         AnimatedView,
         ShapeModelView,
+        ShapeClipModeView,
         TintedView,
         InputView,
         StrokeView,
@@ -190,7 +196,8 @@ public class EditText extends android.widget.EditText
             R.styleable.EditText_carbon_cornerCutTopEnd,
             R.styleable.EditText_carbon_cornerCutBottomStart,
             R.styleable.EditText_carbon_cornerCutBottomEnd,
-            R.styleable.EditText_carbon_cornerCut
+            R.styleable.EditText_carbon_cornerCut,
+            R.styleable.EditText_carbon_shapeClipMode
     };
     private static int[] maxSizeIds = new int[]{
             R.styleable.EditText_carbon_maxWidth,
@@ -532,6 +539,7 @@ public class EditText extends android.widget.EditText
     }
 
     RevealAnimator revealAnimator;
+    private EditModeLayer editModeLayer;
 
     public Point getLocationOnScreen() {
         int[] outLocation = new int[2];
@@ -686,6 +694,18 @@ public class EditText extends android.widget.EditText
             postInvalidate();
     }
 
+    @NotNull
+    @Override
+    public ShapeClipMode getShapeClipMode() {
+        return shapeClipMode;
+    }
+
+    @Override
+    public void setShapeClipMode(@NotNull ShapeClipMode shapeClipMode) {
+        this.shapeClipMode = shapeClipMode;
+        postInvalidate();
+    }
+
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         super.onLayout(changed, left, top, right, bottom);
@@ -762,48 +782,46 @@ public class EditText extends android.widget.EditText
 
         if (isInEditMode()) {
             if ((r || c) && getWidth() > 0 && getHeight() > 0) {
-                Bitmap layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-                Canvas layerCanvas = new Canvas(layer);
-                drawInternal(layerCanvas);
-
-                Bitmap mask = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-                Canvas maskCanvas = new Canvas(mask);
-                Paint maskPaint = new Paint(0xffffffff);
-                maskCanvas.drawPath(cornersMask, maskPaint);
-
-                for (int x = 0; x < getWidth(); x++) {
-                    for (int y = 0; y < getHeight(); y++) {
-                        int maskPixel = mask.getPixel(x, y);
-                        layer.setPixel(x, y, Color.alpha(maskPixel) > 0 ? layer.getPixel(x, y) : 0);
-                    }
-                }
-                canvas.drawBitmap(layer, 0, 0, paint);
+                if (editModeLayer == null)
+                    editModeLayer = new EditModeLayer();
+                drawInternal(editModeLayer.begin(getWidth(), getHeight()));
+                editModeLayer.drawMasked(canvas, cornersMask);
             } else {
                 drawInternal(canvas);
             }
         } else if (getWidth() > 0 && getHeight() > 0 && (((r || c) && !Carbon.IS_LOLLIPOP_OR_HIGHER) || !shapeModel.isRoundRect(boundsRect))) {
-            int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
-
-            if (r) {
-                int saveCount2 = canvas.save();
-                canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+            if (Carbon.shouldClipPath(shapeClipMode, canvas, shapeModel, boundsRect, r)) {
+                int saveCount = canvas.save();
+                if (c)
+                    Carbon.clipPath(canvas, cornersMask);
+                if (r)
+                    Carbon.clipPath(canvas, revealAnimator.mask);
                 drawInternal(canvas);
-                canvas.restoreToCount(saveCount2);
+                canvas.restoreToCount(saveCount);
             } else {
-                drawInternal(canvas);
-            }
+                int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
+
+                if (r) {
+                    int saveCount2 = canvas.save();
+                    canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+                    drawInternal(canvas);
+                    canvas.restoreToCount(saveCount2);
+                } else {
+                    drawInternal(canvas);
+                }
 
-            paint.setXfermode(Carbon.CLEAR_MODE);
-            if (c) {
-                cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
-                canvas.drawPath(cornersMask, paint);
-            }
-            if (r)
-                canvas.drawPath(revealAnimator.mask, paint);
-            paint.setXfermode(null);    // TODO check if this is needed
+                paint.setXfermode(Carbon.CLEAR_MODE);
+                if (c) {
+                    cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
+                    canvas.drawPath(cornersMask, paint);
+                }
+                if (r)
+                    canvas.drawPath(revealAnimator.mask, paint);
+                paint.setXfermode(null);    // TODO check if this is needed
 
-            canvas.restoreToCount(saveCount);
-            paint.setXfermode(null);
+                canvas.restoreToCount(saveCount);
+                paint.setXfermode(null);
+            }
         } else {
             drawInternal(canvas);
         }
@@ -884,11 +902,11 @@ public class EditText extends android.widget.EditText
         if (getParent() == null || !(getParent() instanceof View))
             return;
 
-        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless)
-            ((View) getParent()).invalidate();
-
-        if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect))
-            ((View) getParent()).invalidate();
+        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless) {
+            ParentInvalidator.invalidateParent(this);
+        } else if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect)) {
+            ParentInvalidator.invalidate(this, elevation + translationZ);
+        }
     }
 
     @Override
@@ -952,6 +970,7 @@ public class EditText extends android.widget.EditText
     private float elevation = 0;
     private float translationZ = 0;
     private ShapeAppearanceModel shapeModel = new ShapeAppearanceModel();
+    private ShapeClipMode shapeClipMode = ShapeClipMode.AUTO;
     private MaterialShapeDrawable shadowDrawable = new MaterialShapeDrawable(shapeModel);
     private ColorStateList ambientShadowColor, spotShadowColor;
 
@@ -976,6 +995,8 @@ public class EditText extends android.widget.EditText
         } else if (elevation != this.elevation && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        if (elevation != this.elevation)
+            ElevationDrawingOrder.onElevationChanged(this);
         this.elevation = elevation;
     }
 
@@ -998,6 +1019,7 @@ public class EditText extends android.widget.EditText
         } else if (translationZ != this.translationZ && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        ElevationDrawingOrder.onElevationChanged(this);
         this.translationZ = translationZ;
     }
 
@@ -1023,8 +1045,12 @@ public class EditText extends android.widget.EditText
         boolean maskShadow = getBackground() != null && alpha != 1;
         boolean r = revealAnimator != null && revealAnimator.isRunning();
 
-        if (alpha != 255) {
-            paint.setAlpha((int) (127 * alpha));
+        int shadowColor = spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000;
+        ShadowCache.Shadow shadow = ShadowCache.get(shadowDrawable, spotShadowColor, shadowColor, z, getWidth(), getHeight());
+        boolean layer = maskShadow || r || shadow == null;
+
+        paint.setAlpha((int) (127 * alpha));
+        if (layer) {
             saveCount = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), paint, Canvas.ALL_SAVE_FLAG);
         } else {
             saveCount = canvas.save();
@@ -1038,13 +1064,18 @@ public class EditText extends android.widget.EditText
                     getLeft() + revealAnimator.x + revealAnimator.radius, getTop() + revealAnimator.y + revealAnimator.radius);
         }
 
-        shadowDrawable.setFillColor(spotShadowColor);
-        shadowDrawable.setShadowColor(spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000);
-        shadowDrawable.setAlpha(0x44);
-        shadowDrawable.setElevation(z);
-        shadowDrawable.setShadowVerticalOffset(0);
-        shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
-        shadowDrawable.draw(canvas);
+        if (shadow != null) {
+            // without a layer the bitmap is drawn with the shadow's alpha
+            canvas.drawBitmap(shadow.bitmap, getLeft() - shadow.padding, (int) (getTop() + z / 4) - shadow.padding, layer ? null : paint);
+        } else {
+            shadowDrawable.setFillColor(spotShadowColor);
+            shadowDrawable.setShadowColor(shadowColor);
+            shadowDrawable.setAlpha(0x44);
+            shadowDrawable.setElevation(z);
+            shadowDrawable.setShadowVerticalOffset(0);
+            shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
+            shadowDrawable.draw(canvas);
+        }
 
         canvas.translate(this.getLeft(), this.getTop());
         canvas.concat(matrix);
@@ -1536,6 +1567,7 @@ public class EditText extends android.widget.EditText
 
     private RectF textRect = new RectF();
     private RectF availableSpaceRect = new RectF();
+    private TextSizeFitter textSizeFitter = new TextSizeFitter();
     private float spacingMult = 1.0f;
     private float spacingAdd = 0.0f;
     private int maxLines = -1;
@@ -1654,33 +1686,9 @@ public class EditText extends android.widget.EditText
             initAutoSize();
         availableSpaceRect.right = getMeasuredWidth() - getCompoundPaddingLeft() - getCompoundPaddingRight();
         availableSpaceRect.bottom = getMeasuredHeight() - getCompoundPaddingBottom() - getCompoundPaddingTop();
-        super.setTextSize(TypedValue.COMPLEX_UNIT_PX, binarySearch(availableSpaceRect));
-    }
-
-    private float binarySearch(RectF availableSpace) {
-        int lastBest = 0;
-        int lo = 0;
-        int hi = autoSizeStepPresets.length - 1;
-        int mid;
-//        for (int i = 0; i < autoSizeStepPresets.length; i++) {
-//            if (testSize(autoSizeStepPresets[i], availableSpace)) {
-//                lastBest = i;
-//            } else {
-//                break;
-//            }
-//        }
-        while (lo <= hi) {
-            mid = (lo + hi) / 2;
-            boolean fits = testSize(autoSizeStepPresets[mid], availableSpace);
-            if (fits) {
-                lastBest = mid;
-                lo = mid + 1;
-            } else {
-                hi = mid - 1;
-            }
-        }
-        return autoSizeStepPresets[lastBest];
-
+        float size = textSizeFitter.fit(getText(), getTypeface(), (int) availableSpaceRect.right, (int) availableSpaceRect.bottom, maxLines, spacingMult, spacingAdd, autoSizeStepPresets);
+        if (size != getTextSize())
+            super.setTextSize(TypedValue.COMPLEX_UNIT_PX, size);
     }
 
     public boolean testSize(float suggestedSize, RectF availableSpace) {
@@ -128,9 +128,56 @@ public class ExpandableRecyclerView extends RecyclerView {
         SparseBooleanArray expanded = new SparseBooleanArray();
         private OnChildItemClickedListener onChildItemClickedListener;
 
+        // Fenwick tree of group sizes (header + expanded children), 1-based
+        private int[] tree = new int[1];
+        private int[] groupSizes = new int[0];
+        private int indexedGroupCount = -1;
+        private int itemCount;
+        private boolean updatingIndex = false;
+        private int attachedCount = 0;
+        private AdapterDataObserver indexObserver = new AdapterDataObserver() {
+            @Override
+            public void onChanged() {
+                invalidateIndex();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                invalidateIndex();
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                invalidateIndex();
+            }
+
+            @Override
+            public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+                invalidateIndex();
+            }
+        };
+
         public Adapter() {
         }
 
+        @Override
+        public void onAttachedToRecyclerView(@NonNull androidx.recyclerview.widget.RecyclerView recyclerView) {
+            super.onAttachedToRecyclerView(recyclerView);
+            // registered here and not in the constructor to keep setHasStableIds() usable,
+            // changes made while detached weren't observed, so the index is rebuilt
+            if (attachedCount++ == 0) {
+                indexedGroupCount = -1;
+                registerAdapterDataObserver(indexObserver);
+            }
+        }
+
+        @Override
+        public void onDetachedFromRecyclerView(@NonNull androidx.recyclerview.widget.RecyclerView recyclerView) {
+            super.onDetachedFromRecyclerView(recyclerView);
+            if (--attachedCount == 0)
+                unregisterAdapterDataObserver(indexObserver);
+        }
+
         boolean isExpanded(int group) {
             return expanded.get(group);
         }
@@ -141,34 +188,56 @@ public class ExpandableRecyclerView extends RecyclerView {
 
         public void setExpandedGroups(SparseBooleanArray expanded) {
             this.expanded = expanded;
+            indexedGroupCount = -1;
         }
 
         public void expand(int group) {
             if (isExpanded(group))
                 return;
-            int position = 0;
-            for (int i = 0; i < group; i++) {
-                position++;
-                if (isExpanded(i))
-                    position += getChildItemCount(i);
-            }
-            position++;
-            notifyItemRangeInserted(position, getChildItemCount(group));
+            validateIndex();
+            int position = getGroupPosition(group) + 1;
+            int childCount = getChildItemCount(group);
             expanded.put(group, true);
+            updateGroupSize(group, childCount);
+            updatingIndex = true;
+            notifyItemRangeInserted(position, childCount);
+            updatingIndex = false;
         }
 
         public void collapse(int group) {
             if (!isExpanded(group))
                 return;
-            int position = 0;
-            for (int i = 0; i < group; i++) {
-                position++;
-                if (isExpanded(i))
-                    position += getChildItemCount(i);
-            }
-            position++;
-            notifyItemRangeRemoved(position, getChildItemCount(group));
+            validateIndex();
+            int position = getGroupPosition(group) + 1;
+            int childCount = getChildItemCount(group);
             expanded.put(group, false);
+            updateGroupSize(group, -childCount);
+            updatingIndex = true;
+            notifyItemRangeRemoved(position, childCount);
+            updatingIndex = false;
+        }
+
+        public void expandAll() {
+            setAllExpanded(true);
+        }
+
+        public void collapseAll() {
+            setAllExpanded(false);
+        }
+
+        private void setAllExpanded(boolean expand) {
+            boolean changed = false;
+            for (int i = 0; i < getGroupItemCount(); i++) {
+                if (isExpanded(i) != expand) {
+                    expanded.put(i, expand);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                // the index observer isn't registered while detached
+                indexedGroupCount = -1;
+                notifyDataSetChanged();
+            }
         }
 
         public abstract int getGroupItemCount();
@@ -177,65 +246,92 @@ public class ExpandableRecyclerView extends RecyclerView {
 
         @Override
         public int getItemCount() {
-            int count = 0;
-            for (int i = 0; i < getGroupItemCount(); i++) {
-                count += isExpanded(i) ? getChildItemCount(i) + 1 : 1;
-            }
-            return count;
+            validateIndex();
+            return itemCount;
         }
 
         public abstract G getGroupItem(int position);
 
         public abstract C getChildItem(int group, int position);
 
-        @Override
-        public Object getItem(int i) {
+        /**
+         * @return adapter position of the group's header
+         */
+        public int getGroupPosition(int group) {
+            validateIndex();
+            int position = 0;
+            for (int i = group; i > 0; i -= i & -i)
+                position += tree[i];
+            return position;
+        }
+
+        /**
+         * @return index of the group the item at the adapter position belongs to
+         */
+        public int getGroupAt(int position) {
+            validateIndex();
+            if (position < 0 || position >= itemCount)
+                throw new IndexOutOfBoundsException();
             int group = 0;
-            while (group < getGroupItemCount()) {
-                if (i > 0 && !isExpanded(group)) {
-                    i--;
-                    group++;
-                    continue;
+            for (int step = Integer.highestOneBit(indexedGroupCount); step > 0; step >>= 1) {
+                if (group + step <= indexedGroupCount && tree[group + step] <= position) {
+                    group += step;
+                    position -= tree[group];
                 }
-                if (i > 0 && isExpanded(group)) {
-                    i--;
-                    if (i < getChildItemCount(group))
-                        return getChildItem(group, i);
-                    i -= getChildItemCount(group);
-                    group++;
-                    continue;
-                }
-                if (i == 0)
-                    return getGroupItem(group);
             }
-            throw new IndexOutOfBoundsException();
+            return group;
+        }
+
+        private void invalidateIndex() {
+            if (!updatingIndex)
+                indexedGroupCount = -1;
+        }
+
+        private void validateIndex() {
+            int groupCount = getGroupItemCount();
+            if (indexedGroupCount == groupCount)
+                return;
+            if (groupSizes.length != groupCount) {
+                groupSizes = new int[groupCount];
+                tree = new int[groupCount + 1];
+            }
+            itemCount = 0;
+            for (int i = 0; i < groupCount; i++) {
+                groupSizes[i] = isExpanded(i) ? getChildItemCount(i) + 1 : 1;
+                tree[i + 1] = groupSizes[i];
+                itemCount += groupSizes[i];
+            }
+            for (int i = 1; i <= groupCount; i++) {
+                int parent = i + (i & -i);
+                if (parent <= groupCount)
+                    tree[parent] += tree[i];
+            }
+            indexedGroupCount = groupCount;
+        }
+
+        private void updateGroupSize(int group, int delta) {
+            groupSizes[group] += delta;
+            itemCount += delta;
+            for (int i = group + 1; i <= indexedGroupCount; i += i & -i)
+                tree[i] += delta;
+        }
+
+        @Override
+        public Object getItem(int i) {
+            int group = getGroupAt(i);
+            int child = i - getGroupPosition(group) - 1;
+            return child < 0 ? getGroupItem(group) : getChildItem(group, child);
         }
 
         @Override
         public void onBindViewHolder(ViewHolder holder, int i) {
-            int group = 0;
-            while (group < getGroupItemCount()) {
-                if (i > 0 && !isExpanded(group)) {
-                    i--;
-                    group++;
-                    continue;
-                }
-                if (i > 0 && isExpanded(group)) {
-                    i--;
-                    if (i < getChildItemCount(group)) {
-                        onBindChildViewHolder((CVH) holder, group, i);
-                        return;
-                    }
-                    i -= getChildItemCount(group);
-                    group++;
-                    continue;
-                }
-                if (i == 0) {
-                    onBindGroupViewHolder((GVH) holder, group);
-                    return;
-                }
+            int group = getGroupAt(i);
+            int child = i - getGroupPosition(group) - 1;
+            if (child < 0) {
+                onBindGroupViewHolder((GVH) holder, group);
+            } else {
+                onBindChildViewHolder((CVH) holder, group, child);
             }
-            throw new IndexOutOfBoundsException();
         }
 
         @Override
@@ -251,25 +347,9 @@ public class ExpandableRecyclerView extends RecyclerView {
 
         @Override
         public int getItemViewType(int i) {
-            int group = 0;
-            while (group < getGroupItemCount()) {
-                if (i > 0 && !isExpanded(group)) {
-                    i--;
-                    group++;
-                    continue;
-                }
-                if (i > 0 && isExpanded(group)) {
-                    i--;
-                    if (i < getChildItemCount(group))
-                        return getChildItemViewType(group, i);
-                    i -= getChildItemCount(group);
-                    group++;
-                    continue;
-                }
-                if (i == 0)
-                    return TYPE_HEADER;
-            }
-            throw new IndexOutOfBoundsException();
+            int group = getGroupAt(i);
+            int child = i - getGroupPosition(group) - 1;
+            return child < 0 ? TYPE_HEADER : getChildItemViewType(group, child);
         }
 
         public void setOnChildItemClickedListener(ExpandableRecyclerView.OnChildItemClickedListener onItemClickedListener) {
@@ -7,10 +7,10 @@ import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.ColorMatrix;
 import android.graphics.ColorMatrixColorFilter;
 import android.graphics.Matrix;
@@ -23,6 +23,7 @@ import android.graphics.PorterDuffColorFilter;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
+import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
@@ -50,6 +51,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import carbon.Carbon;
 import carbon.R;
@@ -60,11 +62,18 @@ import carbon.animation.StateAnimator;
 import carbon.drawable.VectorDrawable;
 import carbon.drawable.ripple.RippleDrawable;
 import carbon.drawable.ripple.RippleView;
+import carbon.internal.EditModeLayer;
+import carbon.internal.ElevationDrawingOrder;
+import carbon.internal.ParentInvalidator;
 import carbon.internal.RevealAnimator;
+import carbon.internal.ShadowCache;
+import carbon.internal.VectorCache;
 import carbon.view.MarginView;
 import carbon.view.MaxSizeView;
 import carbon.view.RevealView;
 import carbon.view.ShadowView;
+import carbon.view.ShapeClipMode;
+import carbon.view.ShapeClipModeView;
 import carbon.view.ShapeModelView;
 import carbon.view.StateAnimatorView;
 import carbon.view.StrokeView;
@@ -84,6 +93,7 @@ public class ImageView extends android.widget.ImageView
         StateAnimatorView,
         AnimatedView,
         ShapeModelView,
+        ShapeClipModeView,
         TintedView,
         StrokeView,
         MaxSizeView,
@@ -151,7 +161,8 @@ public class ImageView extends android.widget.ImageView
             R.styleable.ImageView_carbon_cornerCutTopEnd,
             R.styleable.ImageView_carbon_cornerCutBottomStart,
             R.styleable.ImageView_carbon_cornerCutBottomEnd,
-            R.styleable.ImageView_carbon_cornerCut
+            R.styleable.ImageView_carbon_cornerCut,
+            R.styleable.ImageView_carbon_shapeClipMode
     };
     private static int[] maxSizeIds = new int[]{
             R.styleable.ImageView_carbon_maxWidth,
@@ -227,9 +238,49 @@ public class ImageView extends android.widget.ImageView
         applyTint();
     }
 
+    private Executor imageExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+    private int pendingImageResource;
+
+    public Executor getImageExecutor() {
+        return imageExecutor;
+    }
+
+    /**
+     * Sets the executor used to load images set using {@link #setImageResourceAsync(int, Drawable)}.
+     */
+    public void setImageExecutor(@NonNull Executor imageExecutor) {
+        this.imageExecutor = imageExecutor;
+    }
+
+    /**
+     * Sets a vector image without parsing it on the main thread. Until the SVG is parsed and
+     * rendered, the placeholder is shown. Images already in the cache and other resources are
+     * set immediately.
+     */
+    public void setImageResourceAsync(int resId, @Nullable Drawable placeholder) {
+        if (resId == 0 || !getContext().getResources().getResourceTypeName(resId).equals("raw") || VectorCache.peekSvg(resId) != null) {
+            setImageResource(resId);
+            return;
+        }
+
+        VectorCache.register(getContext());
+        setImageDrawable(placeholder);
+        pendingImageResource = resId;
+        Resources res = getResources();
+        imageExecutor.execute(() -> {
+            VectorDrawable.preload(res, resId, true);
+            post(() -> {
+                if (pendingImageResource == resId)
+                    setImageResource(resId);
+            });
+        });
+    }
+
     @Override
     public void setImageResource(int resId) {
+        pendingImageResource = 0;
         if (resId != 0 && getContext().getResources().getResourceTypeName(resId).equals("raw")) {
+            VectorCache.register(getContext());
             setImageDrawable(new VectorDrawable(getResources(), resId));
         } else {
             super.setImageResource(resId);
@@ -239,12 +290,14 @@ public class ImageView extends android.widget.ImageView
 
     @Override
     public void setImageDrawable(@Nullable Drawable drawable) {
+        pendingImageResource = 0;
         super.setImageDrawable(drawable);
         applyTint();
     }
 
     private Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
     RevealAnimator revealAnimator;
+    private EditModeLayer editModeLayer;
 
     public Point getLocationOnScreen() {
         int[] outLocation = new int[2];
@@ -342,6 +395,18 @@ public class ImageView extends android.widget.ImageView
             postInvalidate();
     }
 
+    @NotNull
+    @Override
+    public ShapeClipMode getShapeClipMode() {
+        return shapeClipMode;
+    }
+
+    @Override
+    public void setShapeClipMode(@NotNull ShapeClipMode shapeClipMode) {
+        this.shapeClipMode = shapeClipMode;
+        postInvalidate();
+    }
+
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         super.onLayout(changed, left, top, right, bottom);
@@ -400,45 +465,43 @@ public class ImageView extends android.widget.ImageView
         }
 
         if (isInEditMode() && (r || c) && getWidth() > 0 && getHeight() > 0) {
-            Bitmap layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas layerCanvas = new Canvas(layer);
-            drawInternal(layerCanvas);
-
-            Bitmap mask = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-            Canvas maskCanvas = new Canvas(mask);
-            Paint maskPaint = new Paint(0xffffffff);
-            maskCanvas.drawPath(cornersMask, maskPaint);
-
-            for (int x = 0; x < getWidth(); x++) {
-                for (int y = 0; y < getHeight(); y++) {
-                    int maskPixel = mask.getPixel(x, y);
-                    layer.setPixel(x, y, Color.alpha(maskPixel) > 0 ? layer.getPixel(x, y) : 0);
-                }
-            }
-            canvas.drawBitmap(layer, 0, 0, paint);
+            if (editModeLayer == null)
+                editModeLayer = new EditModeLayer();
+            drawInternal(editModeLayer.begin(getWidth(), getHeight()));
+            editModeLayer.drawMasked(canvas, cornersMask);
         } else if (getWidth() > 0 && getHeight() > 0 && (((r || c) && !Carbon.IS_LOLLIPOP_OR_HIGHER) || !shapeModel.isRoundRect(boundsRect))) {
-            int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
-
-            if (r) {
-                int saveCount2 = canvas.save();
-                canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+            if (Carbon.shouldClipPath(shapeClipMode, canvas, shapeModel, boundsRect, r)) {
+                int saveCount = canvas.save();
+                if (c)
+                    Carbon.clipPath(canvas, cornersMask);
+                if (r)
+                    Carbon.clipPath(canvas, revealAnimator.mask);
                 drawInternal(canvas);
-                canvas.restoreToCount(saveCount2);
+                canvas.restoreToCount(saveCount);
             } else {
-                drawInternal(canvas);
-            }
+                int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
+
+                if (r) {
+                    int saveCount2 = canvas.save();
+                    canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+                    drawInternal(canvas);
+                    canvas.restoreToCount(saveCount2);
+                } else {
+                    drawInternal(canvas);
+                }
 
-            paint.setXfermode(Carbon.CLEAR_MODE);
-            if (c) {
-                cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
-                canvas.drawPath(cornersMask, paint);
-            }
-            if (r)
-                canvas.drawPath(revealAnimator.mask, paint);
-            paint.setXfermode(null);    // TODO check if this is needed
+                paint.setXfermode(Carbon.CLEAR_MODE);
+                if (c) {
+                    cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
+                    canvas.drawPath(cornersMask, paint);
+                }
+                if (r)
+                    canvas.drawPath(revealAnimator.mask, paint);
+                paint.setXfermode(null);    // TODO check if this is needed
 
-            canvas.restoreToCount(saveCount);
-            paint.setXfermode(null);
+                canvas.restoreToCount(saveCount);
+                paint.setXfermode(null);
+            }
         } else {
             drawInternal(canvas);
         }
@@ -519,11 +582,11 @@ public class ImageView extends android.widget.ImageView
         if (getParent() == null || !(getParent() instanceof View))
             return;
 
-        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless)
-            ((View) getParent()).invalidate();
-
-        if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect))
-            ((View) getParent()).invalidate();
+        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless) {
+            ParentInvalidator.invalidateParent(this);
+        } else if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect)) {
+            ParentInvalidator.invalidate(this, elevation + translationZ);
+        }
     }
 
     @Override
@@ -577,6 +640,7 @@ public class ImageView extends android.widget.ImageView
     private float elevation = 0;
     private float translationZ = 0;
     private ShapeAppearanceModel shapeModel = new ShapeAppearanceModel();
+    private ShapeClipMode shapeClipMode = ShapeClipMode.AUTO;
     private MaterialShapeDrawable shadowDrawable = new MaterialShapeDrawable(shapeModel);
     private ColorStateList ambientShadowColor, spotShadowColor;
 
@@ -601,6 +665,8 @@ public class ImageView extends android.widget.ImageView
         } else if (elevation != this.elevation && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        if (elevation != this.elevation)
+            ElevationDrawingOrder.onElevationChanged(this);
         this.elevation = elevation;
     }
 
@@ -623,6 +689,7 @@ public class ImageView extends android.widget.ImageView
         } else if (translationZ != this.translationZ && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        ElevationDrawingOrder.onElevationChanged(this);
         this.translationZ = translationZ;
     }
 
@@ -648,8 +715,12 @@ public class ImageView extends android.widget.ImageView
         boolean maskShadow = getBackground() != null && alpha != 1;
         boolean r = revealAnimator != null && revealAnimator.isRunning();
 
-        if (alpha != 255) {
-            paint.setAlpha((int) (127 * alpha));
+        int shadowColor = spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000;
+        ShadowCache.Shadow shadow = ShadowCache.get(shadowDrawable, spotShadowColor, shadowColor, z, getWidth(), getHeight());
+        boolean layer = maskShadow || r || shadow == null;
+
+        paint.setAlpha((int) (127 * alpha));
+        if (layer) {
             saveCount = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), paint, Canvas.ALL_SAVE_FLAG);
         } else {
             saveCount = canvas.save();
@@ -663,13 +734,18 @@ public class ImageView extends android.widget.ImageView
                     getLeft() + revealAnimator.x + revealAnimator.radius, getTop() + revealAnimator.y + revealAnimator.radius);
         }
 
-        shadowDrawable.setFillColor(spotShadowColor);
-        shadowDrawable.setShadowColor(spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000);
-        shadowDrawable.setAlpha(0x44);
-        shadowDrawable.setElevation(z);
-        shadowDrawable.setShadowVerticalOffset(0);
-        shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
-        shadowDrawable.draw(canvas);
+        if (shadow != null) {
+            // without a layer the bitmap is drawn with the shadow's alpha
+            canvas.drawBitmap(shadow.bitmap, getLeft() - shadow.padding, (int) (getTop() + z / 4) - shadow.padding, layer ? null : paint);
+        } else {
+            shadowDrawable.setFillColor(spotShadowColor);
+            shadowDrawable.setShadowColor(shadowColor);
+            shadowDrawable.setAlpha(0x44);
+            shadowDrawable.setElevation(z);
+            shadowDrawable.setShadowVerticalOffset(0);
+            shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
+            shadowDrawable.draw(canvas);
+        }
 
         canvas.translate(this.getLeft(), this.getTop());
         canvas.concat(matrix);
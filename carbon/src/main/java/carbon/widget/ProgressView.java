@@ -9,6 +9,7 @@ import android.os.Build;
 import android.util.AttributeSet;
 
 import androidx.annotation.NonNull;
+import androidx.core.view.ViewCompat;
 
 import carbon.R;
 import carbon.drawable.CircularProgressDrawable;
@@ -95,19 +96,68 @@ public class ProgressView extends View {
     }
 
     public void setDrawable(ProgressDrawable newDrawable) {
-        this.drawable = newDrawable;
-
         if (drawable != null)
             drawable.setCallback(null);
 
-        if (newDrawable != null)
+        this.drawable = newDrawable;
+
+        if (newDrawable != null) {
             newDrawable.setCallback(this);
+            updateDrawableVisibility();
+        }
     }
 
     public ProgressDrawable getDrawable() {
         return drawable;
     }
 
+    // animated drawables stop requesting frames when they can't be seen, since API 24 the view's
+    // visibility is tracked using onVisibilityAggregated()
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N)
+            updateDrawableVisibility();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        // the view still reports being attached here
+        setDrawableVisible(false);
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull android.view.View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N)
+            updateDrawableVisibility();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N)
+            setDrawableVisible(visibility == VISIBLE && ViewCompat.isAttachedToWindow(this) && isShown());
+    }
+
+    @TargetApi(Build.VERSION_CODES.N)
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        setDrawableVisible(isVisible);
+    }
+
+    private void updateDrawableVisibility() {
+        setDrawableVisible(ViewCompat.isAttachedToWindow(this) && getWindowVisibility() == VISIBLE && isShown());
+    }
+
+    private void setDrawableVisible(boolean visible) {
+        if (drawable != null)
+            drawable.setVisible(visible, false);
+    }
+
     @Override
     protected boolean verifyDrawable(@NonNull Drawable who) {
         return super.verifyDrawable(who) || who == drawable;
@@ -8,6 +8,9 @@ public abstract class SearchAdapter<Type> {
 
     public abstract Type getItem(int i);
 
+    /**
+     * Can be called on the search executor's thread, so it should depend only on the item.
+     */
     public abstract String[] getItemWords(Type item);
 
     public boolean filterItem(SearchEditText.SearchSettings settings, String query, Type item) {
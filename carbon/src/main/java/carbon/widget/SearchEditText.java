@@ -2,14 +2,21 @@ package carbon.widget;
 
 import android.annotation.TargetApi;
 import android.content.Context;
+import android.os.AsyncTask;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.SpannableStringBuilder;
 import android.text.TextWatcher;
 import android.util.AttributeSet;
 
+import androidx.core.os.CancellationSignal;
+
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import carbon.R;
 import carbon.view.SimpleTextWatcher;
@@ -29,6 +36,13 @@ public class SearchEditText extends EditText {
         SearchSettings() {
         }
 
+        SearchSettings(SearchSettings settings) {
+            afterTextChanged = settings.afterTextChanged;
+            matchCase = settings.matchCase;
+            searchThreshold = settings.searchThreshold;
+            matchMode = settings.matchMode;
+        }
+
         public boolean afterTextChanged = true, matchCase = false;
         public int searchThreshold = 2;
         public MatchMode matchMode = MatchMode.ADJACENT;
@@ -37,6 +51,16 @@ public class SearchEditText extends EditText {
     private OnFilterListener onFilterListener;
     private String prevText = "";
 
+    private Executor searchExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+    private Handler handler = new Handler(Looper.getMainLooper());
+    private final Object indexLock = new Object();
+    private SearchIndex searchIndex;
+    private int indexGeneration = 0;
+    private CancellationSignal searchSignal;
+    private String lastQuery;
+    private MatchMode lastMatchMode;
+    private BitSet lastResult;
+
     protected TextWatcher searchTextWatcher;
     SearchAdapter dataProvider;
     SearchSettings settings = new SearchSettings();
@@ -83,6 +107,30 @@ public class SearchEditText extends EditText {
 
     public <Type> void setDataProvider(SearchAdapter<Type> dataProvider) {
         this.dataProvider = dataProvider;
+        invalidateSearchIndex();
+    }
+
+    /**
+     * Drops the search index. Should be called when items of the data provider change.
+     */
+    public void invalidateSearchIndex() {
+        synchronized (indexLock) {
+            searchIndex = null;
+            indexGeneration++;
+        }
+        lastQuery = null;
+        lastResult = null;
+    }
+
+    /**
+     * Sets the executor used to search for items. If null, items are searched on the calling thread.
+     */
+    public void setSearchExecutor(Executor searchExecutor) {
+        this.searchExecutor = searchExecutor;
+    }
+
+    public Executor getSearchExecutor() {
+        return searchExecutor;
     }
 
     public void setMatchMode(MatchMode mode) {
@@ -127,22 +175,121 @@ public class SearchEditText extends EditText {
         filter(getText().toString());
     }
 
+    /**
+     * Searches for items matching the query. If a search executor is set, the search runs on that
+     * executor and superseded searches are cancelled. The adapter is read only on the calling
+     * thread, the search uses a copy of its items and of the search settings. Adapters with a
+     * custom {@link SearchAdapter#filterItem} are filtered on the calling thread. Results are
+     * delivered to OnFilterListener on the main thread.
+     */
     public void filter(String query) {
         if (dataProvider == null) {
             return;
         }
 
-        filteredItems.clear();
+        if (searchSignal != null) {
+            searchSignal.cancel();
+            searchSignal = null;
+        }
+
         if (query.length() < settings.searchThreshold) {
+            filteredItems.clear();
+            lastQuery = null;
+            lastResult = null;
             fireOnFilterEvent(null);
             return;
         }
 
-        for (int i = 0; i < dataProvider.getItemCount(); i++) {
-            Object item = dataProvider.getItem(i);
-            if (dataProvider.filterItem(settings, query, item))
-                filteredItems.add(item);
+        final SearchAdapter adapter = dataProvider;
+        final SearchSettings settings = new SearchSettings(this.settings);
+        final MatchMode matchMode = settings.matchMode;
+
+        if (!SearchIndex.canIndex(adapter)) {
+            // custom filterItem() implementations may not be thread-safe and may not narrow down
+            // results when the query is extended, so all items are checked here
+            BitSet result = new BitSet();
+            List items = new ArrayList();
+            for (int i = 0; i < adapter.getItemCount(); i++) {
+                Object item = adapter.getItem(i);
+                if (adapter.filterItem(settings, query, item)) {
+                    result.set(i);
+                    items.add(item);
+                }
+            }
+            deliverResults(adapter, query, matchMode, result, items);
+            return;
+        }
+
+        SearchIndex index;
+        final int generation;
+        synchronized (indexLock) {
+            index = searchIndex;
+            generation = indexGeneration;
+        }
+        if (index != null && (index.getAdapter() != adapter || index.isMatchCase() != settings.matchCase || index.getItemCount() != adapter.getItemCount()))
+            index = null;
+        final SearchIndex currentIndex = index;
+        final List items = currentIndex == null ? SearchIndex.getItems(adapter) : null;
+        // results of a query extended by the new query contain all items matching the new query
+        final BitSet candidates = currentIndex != null && lastResult != null && matchMode == lastMatchMode && query.startsWith(lastQuery) ? lastResult : null;
+
+        if (searchExecutor == null) {
+            SearchIndex searchedIndex = currentIndex != null ? currentIndex : getSearchIndex(adapter, items, settings.matchCase, generation);
+            BitSet result = searchedIndex.search(query, matchMode, candidates, null);
+            deliverResults(adapter, query, matchMode, result, collectItems(searchedIndex, result));
+            return;
+        }
+
+        final CancellationSignal signal = new CancellationSignal();
+        searchSignal = signal;
+        searchExecutor.execute(() -> {
+            SearchIndex searchedIndex = currentIndex != null ? currentIndex : getSearchIndex(adapter, items, settings.matchCase, generation);
+            BitSet result = searchedIndex.search(query, matchMode, candidates, signal);
+            if (result == null || signal.isCanceled())
+                return;
+            List resultItems = collectItems(searchedIndex, result);
+            handler.post(() -> {
+                if (signal != searchSignal)
+                    return;
+                searchSignal = null;
+                deliverResults(adapter, query, matchMode, result, resultItems);
+            });
+        });
+    }
+
+    private SearchIndex getSearchIndex(SearchAdapter adapter, List items, boolean matchCase, int generation) {
+        SearchIndex index;
+        synchronized (indexLock) {
+            index = searchIndex;
         }
+        if (index != null && index.getAdapter() == adapter && index.isMatchCase() == matchCase && index.getItemCount() == items.size())
+            return index;
+
+        // built without holding the lock, so the main thread isn't blocked while typing
+        index = new SearchIndex(adapter, items, matchCase);
+        synchronized (indexLock) {
+            // an index invalidated in the meantime may be built from outdated items
+            if (generation == indexGeneration)
+                searchIndex = index;
+        }
+        return index;
+    }
+
+    private List collectItems(SearchIndex index, BitSet result) {
+        List items = new ArrayList(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1))
+            items.add(index.getItem(i));
+        return items;
+    }
+
+    private void deliverResults(SearchAdapter adapter, String query, MatchMode matchMode, BitSet result, List items) {
+        if (adapter != dataProvider)
+            return;
+        lastQuery = query;
+        lastMatchMode = matchMode;
+        lastResult = result;
+        filteredItems.clear();
+        filteredItems.addAll(items);
         fireOnFilterEvent(filteredItems);
     }
 
@@ -0,0 +1,387 @@
+package carbon.widget;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.os.CancellationSignal;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+
+import carbon.internal.SearchHelper;
+
+/**
+ * Search index built from items of a {@link SearchAdapter}. Item words are normalized once (case,
+ * diacritics) and indexed for each of the match modes: a sorted token array for
+ * {@link SearchEditText.MatchMode#START}, trigram postings for {@link SearchEditText.MatchMode#ADJACENT}
+ * and a flat token array for {@link SearchEditText.MatchMode#NONADJACENT}. The sorted tokens are
+ * also used to find completions for {@link AutoCompleteEditText}. The index is immutable and can be
+ * queried from any thread. It can be built on any thread from a copy of the adapter's items made
+ * with {@link #getItems(SearchAdapter)}, in which case the adapter is used only to get words of
+ * the items.
+ */
+public class SearchIndex<Type> {
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+    private static final int GRAM_LENGTH = 3;
+
+    private static final Map<Class<?>, Boolean> indexableTypes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final SearchAdapter<Type> adapter;
+    private final List<Type> items;
+    private final boolean matchCase;
+    private final int itemCount;
+
+    private final String[] words;
+    private final String[] tokens;
+    private final int[] tokenItems;
+    private final int[] itemTokens;     // index of the first token of each item, itemCount + 1 entries
+    private final Integer[] sortedTokens;
+    private final HashMap<String, int[]> grams = new HashMap<>();
+
+    private static class Postings {
+        int[] tokens = new int[4];
+        int size;
+
+        void add(int token) {
+            if (size > 0 && tokens[size - 1] == token)
+                return;
+            if (size == tokens.length)
+                tokens = Arrays.copyOf(tokens, size * 2);
+            tokens[size++] = token;
+        }
+    }
+
+    public SearchIndex(@NonNull SearchAdapter<Type> adapter, boolean matchCase) {
+        this(adapter, getItems(adapter), matchCase);
+    }
+
+    /**
+     * @param items copy of the adapter's items, see {@link #getItems(SearchAdapter)}
+     */
+    public SearchIndex(@NonNull SearchAdapter<Type> adapter, @NonNull List<Type> items, boolean matchCase) {
+        this.adapter = adapter;
+        this.items = items;
+        this.matchCase = matchCase;
+        itemCount = items.size();
+
+        String[][] itemWords = new String[itemCount][];
+        int tokenCount = 0;
+        for (int i = 0; i < itemCount; i++) {
+            itemWords[i] = adapter.getItemWords(items.get(i));
+            if (itemWords[i] != null)
+                tokenCount += itemWords[i].length;
+        }
+
+        words = new String[tokenCount];
+        tokens = new String[tokenCount];
+        tokenItems = new int[tokenCount];
+        itemTokens = new int[itemCount + 1];
+        for (int i = 0, token = 0; i < itemCount; i++) {
+            itemTokens[i] = token;
+            if (itemWords[i] != null) {
+                for (String word : itemWords[i]) {
+                    words[token] = word;
+                    tokens[token] = normalize(word, matchCase);
+                    tokenItems[token] = i;
+                    token++;
+                }
+            }
+            itemTokens[i + 1] = token;
+        }
+
+        sortedTokens = new Integer[tokenCount];
+        for (int i = 0; i < tokenCount; i++)
+            sortedTokens[i] = i;
+        Arrays.sort(sortedTokens, (t1, t2) -> tokens[t1].compareTo(tokens[t2]));
+
+        HashMap<String, Postings> postings = new HashMap<>();
+        for (int i = 0; i < tokenCount; i++) {
+            String token = tokens[i];
+            for (int j = 0; j + GRAM_LENGTH <= token.length(); j++) {
+                String gram = token.substring(j, j + GRAM_LENGTH);
+                Postings p = postings.get(gram);
+                if (p == null) {
+                    p = new Postings();
+                    postings.put(gram, p);
+                }
+                p.add(i);
+            }
+        }
+        for (HashMap.Entry<String, Postings> entry : postings.entrySet())
+            grams.put(entry.getKey(), Arrays.copyOf(entry.getValue().tokens, entry.getValue().size));
+    }
+
+    public SearchAdapter<Type> getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * @return the indexed item, the same as the adapter's item at that position when the index was
+     * built
+     */
+    public Type getItem(int i) {
+        return items.get(i);
+    }
+
+    public boolean isMatchCase() {
+        return matchCase;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getTokenCount() {
+        return tokens.length;
+    }
+
+    /**
+     * @return the item's word the token was made of
+     */
+    public String getWord(int token) {
+        return words[token];
+    }
+
+    /**
+     * @return normalized word
+     */
+    public String getToken(int token) {
+        return tokens[token];
+    }
+
+    public int getTokenItem(int token) {
+        return tokenItems[token];
+    }
+
+    /**
+     * Finds items matching the query.
+     *
+     * @param candidates if not null, only these items are checked. Used to narrow down results of
+     *                   a query the new query extends
+     * @return matching item indices or null if the search was cancelled
+     */
+    @Nullable
+    public BitSet search(@NonNull String query, @NonNull SearchEditText.MatchMode matchMode, @Nullable BitSet candidates, @Nullable CancellationSignal signal) {
+        String q = normalize(query, matchCase);
+        BitSet result = new BitSet(itemCount);
+
+        if (candidates != null) {
+            int checked = 0;
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                for (int t = itemTokens[i]; t < itemTokens[i + 1]; t++) {
+                    if (matches(tokens[t], q, matchMode)) {
+                        result.set(i);
+                        break;
+                    }
+                }
+                if (++checked % CANCELLATION_CHECK_INTERVAL == 0 && isCanceled(signal))
+                    return null;
+            }
+            return result;
+        }
+
+        switch (matchMode) {
+            case START: {
+                int from = lowerBound(q);
+                for (int i = from; i < sortedTokens.length; i++) {
+                    int token = sortedTokens[i];
+                    if (!tokens[token].startsWith(q))
+                        break;
+                    result.set(tokenItems[token]);
+                    if ((i - from + 1) % CANCELLATION_CHECK_INTERVAL == 0 && isCanceled(signal))
+                        return null;
+                }
+                return result;
+            }
+            case ADJACENT: {
+                if (q.length() >= GRAM_LENGTH) {
+                    int[] postings = null;
+                    for (int j = 0; j + GRAM_LENGTH <= q.length(); j++) {
+                        int[] p = grams.get(q.substring(j, j + GRAM_LENGTH));
+                        if (p == null)
+                            return result;
+                        if (postings == null || p.length < postings.length)
+                            postings = p;
+                    }
+                    for (int i = 0; i < postings.length; i++) {
+                        int token = postings[i];
+                        if (!result.get(tokenItems[token]) && tokens[token].contains(q))
+                            result.set(tokenItems[token]);
+                        if ((i + 1) % CANCELLATION_CHECK_INTERVAL == 0 && isCanceled(signal))
+                            return null;
+                    }
+                    return result;
+                }
+                // queries shorter than a gram are checked against all tokens
+            }
+            default:
+                for (int i = 0; i < tokens.length; i++) {
+                    if (!result.get(tokenItems[i]) && matches(tokens[i], q, matchMode))
+                        result.set(tokenItems[i]);
+                    if ((i + 1) % CANCELLATION_CHECK_INTERVAL == 0 && isCanceled(signal))
+                        return null;
+                }
+                return result;
+        }
+    }
+
+    /**
+     * Finds the best completions of a word being typed. Words starting with the part before the
+     * cursor come first, in alphabetical order, followed by words containing all characters of
+     * the word in order, shortest first. Each item is completed with one of its words at most and
+     * words as long as the typed word are skipped. Only the top results are kept, so the cost
+     * doesn't depend on the number of matching words.
+     *
+     * @param preCursor  part of the word before the cursor
+     * @param postCursor part of the word after the cursor
+     * @return ranked tokens or null if the search was cancelled
+     */
+    @Nullable
+    public int[] complete(@NonNull String preCursor, @NonNull String postCursor, int maxResults, @Nullable CancellationSignal signal) {
+        int wordLength = preCursor.length() + postCursor.length();
+        String prefix = normalize(preCursor, matchCase);
+        String word = normalize(preCursor + postCursor, matchCase);
+        int[] results = new int[maxResults];
+        int count = 0;
+        BitSet completedItems = new BitSet(itemCount);
+
+        if (postCursor.length() == 0) {
+            for (int i = lowerBound(prefix); i < sortedTokens.length && count < maxResults; i++) {
+                int token = sortedTokens[i];
+                if (!tokens[token].startsWith(prefix))
+                    break;
+                if (words[token].length() == wordLength || completedItems.get(tokenItems[token]))
+                    continue;
+                completedItems.set(tokenItems[token]);
+                results[count++] = token;
+            }
+            if (isCanceled(signal))
+                return null;
+        }
+
+        if (count < maxResults) {
+            // bounded max-heap, the worst of the best partial matches is on top
+            int limit = maxResults - count;
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit, (t1, t2) -> comparePartial(t2, t1));
+            for (int i = 0; i < itemCount; i++) {
+                if (completedItems.get(i))
+                    continue;
+                for (int token = itemTokens[i]; token < itemTokens[i + 1]; token++) {
+                    if (words[token].length() == wordLength || !SearchHelper.nonadjacentMatch(tokens[token], word))
+                        continue;
+                    if (heap.size() < limit) {
+                        heap.add(token);
+                    } else if (comparePartial(token, heap.peek()) < 0) {
+                        heap.poll();
+                        heap.add(token);
+                    }
+                    break;
+                }
+                if ((i + 1) % CANCELLATION_CHECK_INTERVAL == 0 && isCanceled(signal))
+                    return null;
+            }
+            int partialCount = heap.size();
+            for (int i = partialCount - 1; i >= 0; i--)
+                results[count + i] = heap.poll();
+            count += partialCount;
+        }
+
+        return count == maxResults ? results : Arrays.copyOf(results, count);
+    }
+
+    private int comparePartial(int token1, int token2) {
+        if (tokens[token1].length() != tokens[token2].length())
+            return tokens[token1].length() - tokens[token2].length();
+        return tokens[token1].compareTo(tokens[token2]);
+    }
+
+    private int lowerBound(String query) {
+        int low = 0, high = sortedTokens.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tokens[sortedTokens[mid]].compareTo(query) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean matches(String token, String query, SearchEditText.MatchMode matchMode) {
+        switch (matchMode) {
+            case START:
+                return token.startsWith(query);
+            case ADJACENT:
+                return token.contains(query);
+            default:
+                return SearchHelper.nonadjacentMatch(token, query);
+        }
+    }
+
+    private static boolean isCanceled(CancellationSignal signal) {
+        return signal != null && signal.isCanceled();
+    }
+
+    /**
+     * Normalizes text for searching. Removes diacritics and, if case doesn't matter, converts the
+     * text to lower case.
+     */
+    @NonNull
+    public static String normalize(@NonNull String text, boolean matchCase) {
+        if (!matchCase)
+            text = text.toLowerCase(Locale.getDefault());
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++)
+            ascii = text.charAt(i) < 0x80;
+        if (ascii)
+            return text;
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK)
+                builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Copies the adapter's items. Should be called on the thread the adapter is modified on.
+     */
+    @NonNull
+    public static <Type> List<Type> getItems(@NonNull SearchAdapter<Type> adapter) {
+        int itemCount = adapter.getItemCount();
+        List<Type> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++)
+            items.add(adapter.getItem(i));
+        return Collections.unmodifiableList(items);
+    }
+
+    /**
+     * Items of adapters overriding {@link SearchAdapter#filterItem} can't be searched using an
+     * index. The result is cached per adapter class.
+     */
+    public static boolean canIndex(@NonNull SearchAdapter<?> adapter) {
+        Class<?> type = adapter.getClass();
+        Boolean indexable = indexableTypes.get(type);
+        if (indexable == null) {
+            try {
+                indexable = type.getMethod("filterItem", SearchEditText.SearchSettings.class, String.class, Object.class).getDeclaringClass() == SearchAdapter.class;
+            } catch (NoSuchMethodException e) {
+                indexable = false;
+            }
+            indexableTypes.put(type, indexable);
+        }
+        return indexable;
+    }
+}
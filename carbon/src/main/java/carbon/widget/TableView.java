@@ -1,6 +1,16 @@
 package carbon.widget;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.BoringLayout;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.util.TypedValue;
@@ -8,6 +18,8 @@ import android.view.Gravity;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.NonNull;
+import androidx.appcompat.content.res.AppCompatResources;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import java.text.Format;
@@ -22,6 +34,49 @@ import carbon.recycler.ListAdapter;
 public class TableView extends RecyclerView {
     Map<Class, CellRenderer> cellRenderers = new HashMap<>();
 
+    public enum RowMode {
+        /**
+         * Each cell is a view created by its column's {@link CellRenderer}.
+         */
+        Views,
+        /**
+         * Each row is a single view. Cells with {@link TextCellRenderer} or
+         * {@link CanvasCellRenderer} are drawn directly, other cells are views. Columns have fixed
+         * widths and can be scrolled horizontally. Only visible columns are drawn.
+         */
+        Canvas
+    }
+
+    // view types are allocated from a reserved range, so tables don't collide with other adapters
+    // sharing a pool, and column versions are unique across tables sharing a pool
+    private static final int FIRST_VIEW_TYPE = 0x20000000;
+    private static int nextColumnsVersion = 0;
+
+    private RowMode rowMode = RowMode.Views;
+    private boolean headerEnabled = false;
+    private int frozenColumnCount = 0;
+    private int columnScrollX = 0;
+
+    // resolved once per column in updateColumns()
+    private CellRenderer[] columnRenderers = new CellRenderer[0];
+    private Format[] columnFormats = new Format[0];
+    private Layout.Alignment[] columnAlignments = new Layout.Alignment[0];
+    private int[] columnWidths = new int[0];
+    private int[] columnLefts = new int[1];
+    private Layout[] headerLayouts = new Layout[0];
+    private int columnsVersion = nextColumnsVersion++;
+    private int frozenWidth = 0;
+    private int firstVisibleColumn = 0;
+
+    private int defaultColumnWidth;
+    private int rowHeight;
+    private int headerHeight;
+    private int cellPadding;
+    private TextPaint cellPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private TextPaint headerPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private Paint headerBackgroundPaint = new Paint();
+    private BoringLayout.Metrics boringMetrics = new BoringLayout.Metrics();
+
     public TableView(Context context) {
         super(context);
         initTableView(context);
@@ -38,11 +93,24 @@ public class TableView extends RecyclerView {
     }
 
     private void initTableView(Context context) {
-        setLayoutManager(new LinearLayoutManager(context));
+        setLayoutManager(new TableLayoutManager(context));
         putCellRenderer(String.class, new StringRenderer());
         putCellRenderer(Integer.class, new IntegerRenderer());
         putCellRenderer(Float.class, new FloatRenderer());
         putCellRenderer(Boolean.class, new BooleanRenderer());
+
+        defaultColumnWidth = getResources().getDimensionPixelSize(R.dimen.carbon_tableColumnWidth);
+        rowHeight = getResources().getDimensionPixelSize(R.dimen.carbon_tableRowHeight);
+        headerHeight = getResources().getDimensionPixelSize(R.dimen.carbon_tableHeaderHeight);
+        cellPadding = getResources().getDimensionPixelSize(R.dimen.carbon_padding);
+        cellPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 13, getResources().getDisplayMetrics()));
+        cellPaint.setColor(Carbon.getThemeColor(context, android.R.attr.textColorPrimary));
+        headerPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 14, getResources().getDisplayMetrics()));
+        headerPaint.setColor(Carbon.getThemeColor(context, android.R.attr.textColorSecondary));
+        headerPaint.setTypeface(Typeface.create("sans-serif-medium", Typeface.NORMAL));
+        headerBackgroundPaint.setColor(Carbon.getThemeColor(context, android.R.attr.colorBackground));
+
+        addItemDecoration(new HeaderDecoration());
     }
 
     public static abstract class Adapter extends ListAdapter<Adapter.ViewHolder, List<?>> {
@@ -62,51 +130,445 @@ public class TableView extends RecyclerView {
             return 1;
         }
 
+        /**
+         * @return width of the column in {@link RowMode#Canvas} mode
+         */
+        public int getColumnWidth(int column) {
+            return getColumnWeight(column) * tableView.defaultColumnWidth;
+        }
+
         public Format getColumnFormat(int column) {
             return null;
         }
 
+        /**
+         * Should be called after changing column count, classes, formats or widths.
+         */
+        public void notifyColumnsChanged() {
+            tableView.updateColumns();
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            // rows made for other columns or another mode can't be reused
+            return getViewType(tableView.columnsVersion, tableView.rowMode);
+        }
+
         @Override
         public Adapter.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            if (tableView.rowMode == RowMode.Canvas)
+                return new ViewHolder(new CanvasRow(tableView));
+
             LinearLayout linearLayout = (LinearLayout) View.inflate(parent.getContext(), R.layout.carbon_tablelayout_row, null);
             linearLayout.setLayoutParams(new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
-            linearLayout.setMinimumHeight((int) parent.getContext().getResources().getDimension(R.dimen.carbon_tableRowHeight));
+            linearLayout.setMinimumHeight(tableView.rowHeight);
+            // the row keeps the renderers and formats its cells were made with
+            CellRenderer[] renderers = tableView.columnRenderers;
             float weightSum = 0;
-            for (int i = 0; i < getColumnCount(); i++) {
+            for (int i = 0; i < renderers.length; i++) {
                 LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT, getColumnWeight(i));
-                linearLayout.addView(tableView.getCellRenderer(getColumnClass(i)).getView(parent.getContext()), params);
+                linearLayout.addView(renderers[i].getView(parent.getContext()), params);
                 weightSum += getColumnWeight(i);
             }
             linearLayout.setWeightSum(weightSum);
-            return new ViewHolder(linearLayout);
+            ViewHolder holder = new ViewHolder(linearLayout);
+            holder.renderers = renderers;
+            holder.formats = tableView.columnFormats;
+            return holder;
         }
 
         @Override
         public void onBindViewHolder(Adapter.ViewHolder holder, final int position) {
-            for (int i = 0; i < holder.row.getChildCount(); i++) {
-                View cell = holder.row.getChildAt(i);
-                CellRenderer cellRenderer = tableView.getCellRenderer(getColumnClass(i));
-                cellRenderer.bindView(cell, getItem(position).get(i), getColumnFormat(i));
+            List<?> item = getItem(position);
+            if (holder.itemView instanceof CanvasRow) {
+                ((CanvasRow) holder.itemView).bind(item);
+                return;
             }
+            int count = Math.min(holder.renderers.length, item.size());
+            for (int i = 0; i < count; i++)
+                holder.renderers[i].bindView(holder.row.getChildAt(i), item.get(i), holder.formats[i]);
         }
 
         static class ViewHolder extends RecyclerView.ViewHolder {
             LinearLayout row;
+            CellRenderer[] renderers;
+            Format[] formats;
 
             public ViewHolder(View itemView) {
                 super(itemView);
 
-                row = (LinearLayout) itemView;
+                if (itemView instanceof LinearLayout)
+                    row = (LinearLayout) itemView;
             }
         }
     }
 
+    @Override
+    public void setAdapter(androidx.recyclerview.widget.RecyclerView.Adapter adapter) {
+        super.setAdapter(adapter);
+        updateColumns();
+    }
+
+    private void updateColumns() {
+        Adapter adapter = getAdapter() instanceof Adapter ? (Adapter) getAdapter() : null;
+        int count = adapter != null ? adapter.getColumnCount() : 0;
+        columnRenderers = new CellRenderer[count];
+        columnFormats = new Format[count];
+        columnAlignments = new Layout.Alignment[count];
+        columnWidths = new int[count];
+        columnLefts = new int[count + 1];
+        headerLayouts = new Layout[count];
+        for (int i = 0; i < count; i++) {
+            CellRenderer renderer = getCellRenderer(adapter.getColumnClass(i));
+            columnRenderers[i] = renderer;
+            columnFormats[i] = adapter.getColumnFormat(i);
+            columnAlignments[i] = renderer instanceof TextCellRenderer ? ((TextCellRenderer) renderer).getAlignment() : Layout.Alignment.ALIGN_NORMAL;
+            columnWidths[i] = adapter.getColumnWidth(i);
+            columnLefts[i + 1] = columnLefts[i] + columnWidths[i];
+            headerLayouts[i] = makeLayout(adapter.getColumnName(i), headerPaint, columnWidths[i] - cellPadding * 2, Layout.Alignment.ALIGN_NORMAL, null);
+        }
+        frozenWidth = columnLefts[Math.min(frozenColumnCount, count)];
+        updateColumnsVersion();
+        setColumnScrollX(columnScrollX);
+    }
+
+    private static int getViewType(int columnsVersion, RowMode rowMode) {
+        return FIRST_VIEW_TYPE + columnsVersion * 2 + rowMode.ordinal();
+    }
+
+    // rows made for the previous columns can't be reused, so they're dropped from the pool
+    private void updateColumnsVersion() {
+        RecycledViewPool pool = getRecycledViewPool();
+        for (RowMode mode : RowMode.values())
+            pool.setMaxRecycledViews(getViewType(columnsVersion, mode), 0);
+        columnsVersion = nextColumnsVersion++;
+    }
+
     private CellRenderer getCellRenderer(Class c) {
         return cellRenderers.get(c);
     }
 
+    /**
+     * Sets the renderer used for columns of the given class. Rows are recreated if an adapter is
+     * already set.
+     */
     public void putCellRenderer(Class c, CellRenderer cellRenderer) {
         cellRenderers.put(c, cellRenderer);
+        if (getAdapter() instanceof Adapter) {
+            updateColumns();
+            getAdapter().notifyDataSetChanged();
+        }
+    }
+
+    public RowMode getRowMode() {
+        return rowMode;
+    }
+
+    public void setRowMode(RowMode rowMode) {
+        this.rowMode = rowMode;
+        updateColumnsVersion();
+        setColumnScrollX(columnScrollX);
+        if (getAdapter() != null)
+            getAdapter().notifyDataSetChanged();
+        invalidateItemDecorations();
+    }
+
+    public boolean isHeaderEnabled() {
+        return headerEnabled;
+    }
+
+    /**
+     * @param headerEnabled draws column names above rows in {@link RowMode#Canvas} mode
+     */
+    public void setHeaderEnabled(boolean headerEnabled) {
+        this.headerEnabled = headerEnabled;
+        invalidateItemDecorations();
+    }
+
+    public int getFrozenColumnCount() {
+        return frozenColumnCount;
+    }
+
+    /**
+     * @param frozenColumnCount number of leading columns which don't scroll horizontally in
+     *                          {@link RowMode#Canvas} mode
+     */
+    public void setFrozenColumnCount(int frozenColumnCount) {
+        this.frozenColumnCount = frozenColumnCount;
+        frozenWidth = columnLefts[Math.min(frozenColumnCount, columnWidths.length)];
+        setColumnScrollX(columnScrollX);
+    }
+
+    public int getColumnScrollX() {
+        return columnScrollX;
+    }
+
+    public void setColumnScrollX(int scrollX) {
+        columnScrollX = Math.max(0, Math.min(scrollX, getMaxColumnScrollX()));
+
+        firstVisibleColumn = Math.min(frozenColumnCount, columnWidths.length);
+        while (firstVisibleColumn < columnWidths.length && columnLefts[firstVisibleColumn + 1] - columnScrollX <= frozenWidth)
+            firstVisibleColumn++;
+
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof CanvasRow)
+                ((CanvasRow) child).layoutCells();
+        }
+        invalidate();
+    }
+
+    private int getMaxColumnScrollX() {
+        if (rowMode != RowMode.Canvas)
+            return 0;
+        return Math.max(0, columnLefts[columnWidths.length] - (getWidth() - getPaddingLeft() - getPaddingRight()));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        setColumnScrollX(columnScrollX);
+    }
+
+    private int getColumnX(int column) {
+        return column < frozenColumnCount ? columnLefts[column] : columnLefts[column] - columnScrollX;
+    }
+
+    private interface CellPainter {
+        void drawCell(Canvas canvas, int column, int x, int height);
+    }
+
+    // draws visible scrolled columns clipped to the right of frozen columns, then frozen columns
+    private void drawCells(Canvas canvas, int width, int height, CellPainter painter) {
+        canvas.save();
+        canvas.clipRect(frozenWidth, 0, width, height);
+        for (int i = firstVisibleColumn; i < columnWidths.length; i++) {
+            int x = columnLefts[i] - columnScrollX;
+            if (x >= width)
+                break;
+            painter.drawCell(canvas, i, x, height);
+        }
+        canvas.restore();
+        for (int i = 0; i < Math.min(frozenColumnCount, columnWidths.length); i++)
+            painter.drawCell(canvas, i, columnLefts[i], height);
+    }
+
+    private Layout makeLayout(CharSequence text, TextPaint paint, int width, Layout.Alignment alignment, Layout reuse) {
+        if (text == null)
+            return null;
+        width = Math.max(0, width);
+        text = TextUtils.ellipsize(text, paint, width, TextUtils.TruncateAt.END);
+        BoringLayout.Metrics metrics = BoringLayout.isBoring(text, paint, boringMetrics);
+        if (metrics != null) {
+            if (reuse instanceof BoringLayout)
+                return ((BoringLayout) reuse).replaceOrMake(text, paint, width, alignment, 1, 0, metrics, false);
+            return BoringLayout.make(text, paint, width, alignment, 1, 0, metrics, false);
+        }
+        return new StaticLayout(text, paint, width, alignment, 1, 0, false);
+    }
+
+    private class TableLayoutManager extends LinearLayoutManager {
+
+        TableLayoutManager(Context context) {
+            super(context);
+        }
+
+        @Override
+        public boolean canScrollHorizontally() {
+            return getMaxColumnScrollX() > 0;
+        }
+
+        @Override
+        public int scrollHorizontallyBy(int dx, Recycler recycler, State state) {
+            int prevScrollX = columnScrollX;
+            setColumnScrollX(columnScrollX + dx);
+            return columnScrollX - prevScrollX;
+        }
+
+        @Override
+        public int computeHorizontalScrollOffset(State state) {
+            return columnScrollX;
+        }
+
+        @Override
+        public int computeHorizontalScrollExtent(State state) {
+            return getWidth() - getPaddingLeft() - getPaddingRight() - frozenWidth;
+        }
+
+        @Override
+        public int computeHorizontalScrollRange(State state) {
+            return columnLefts[columnWidths.length] - frozenWidth;
+        }
+    }
+
+    private class HeaderDecoration extends ItemDecoration implements CellPainter {
+
+        @Override
+        public void getItemOffsets(@NonNull Rect outRect, @NonNull View view, @NonNull androidx.recyclerview.widget.RecyclerView parent, @NonNull State state) {
+            if (rowMode == RowMode.Canvas && headerEnabled && parent.getChildAdapterPosition(view) == 0)
+                outRect.top = headerHeight;
+        }
+
+        @Override
+        public void onDrawOver(@NonNull Canvas c, @NonNull androidx.recyclerview.widget.RecyclerView parent, @NonNull State state) {
+            if (rowMode != RowMode.Canvas || !headerEnabled)
+                return;
+            int width = getWidth() - getPaddingLeft() - getPaddingRight();
+            c.save();
+            c.translate(getPaddingLeft(), getPaddingTop());
+            c.drawRect(0, 0, width, headerHeight, headerBackgroundPaint);
+            drawCells(c, width, headerHeight, this);
+            c.restore();
+        }
+
+        @Override
+        public void drawCell(Canvas canvas, int column, int x, int height) {
+            Layout layout = headerLayouts[column];
+            if (layout == null)
+                return;
+            canvas.save();
+            canvas.translate(x + cellPadding, (height - layout.getHeight()) / 2.0f);
+            layout.draw(canvas);
+            canvas.restore();
+        }
+    }
+
+    /**
+     * Row of {@link RowMode#Canvas} mode. Text layouts are made when a cell becomes visible and
+     * kept until the row is bound again.
+     */
+    private static class CanvasRow extends ViewGroup implements CellPainter {
+        private final TableView table;
+        private List<?> item;
+        private final CharSequence[] texts;
+        private final Layout[] layouts;
+        private final boolean[] layoutsValid;
+        private final View[] cellViews;
+        private final Rect cellRect = new Rect();
+
+        CanvasRow(TableView table) {
+            super(table.getContext());
+            this.table = table;
+            setWillNotDraw(false);
+            setLayoutParams(new androidx.recyclerview.widget.RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, table.rowHeight));
+
+            int count = table.columnRenderers.length;
+            texts = new CharSequence[count];
+            layouts = new Layout[count];
+            layoutsValid = new boolean[count];
+            cellViews = new View[count];
+            for (int i = 0; i < count; i++) {
+                CellRenderer renderer = table.columnRenderers[i];
+                if (renderer != null && !(renderer instanceof TextCellRenderer) && !(renderer instanceof CanvasCellRenderer)) {
+                    cellViews[i] = renderer.getView(getContext());
+                    addView(cellViews[i]);
+                }
+            }
+        }
+
+        void bind(List<?> item) {
+            this.item = item;
+            // rows shorter than the table leave their last cells empty
+            for (int i = 0; i < Math.min(cellViews.length, item.size()); i++) {
+                CellRenderer renderer = table.columnRenderers[i];
+                if (renderer instanceof TextCellRenderer) {
+                    texts[i] = ((TextCellRenderer) renderer).getText(item.get(i), table.columnFormats[i]);
+                    layoutsValid[i] = false;
+                } else if (cellViews[i] != null) {
+                    renderer.bindView(cellViews[i], item.get(i), table.columnFormats[i]);
+                }
+            }
+            invalidate();
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            int height = table.rowHeight;
+            for (int i = 0; i < cellViews.length && !isStale(); i++) {
+                if (cellViews[i] != null) {
+                    cellViews[i].measure(MeasureSpec.makeMeasureSpec(table.columnWidths[i], MeasureSpec.EXACTLY),
+                            MeasureSpec.makeMeasureSpec(height, MeasureSpec.EXACTLY));
+                }
+            }
+            setMeasuredDimension(MeasureSpec.getSize(widthMeasureSpec), height);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+            layoutCells();
+        }
+
+        void layoutCells() {
+            if (isStale())
+                return;
+            for (int i = 0; i < cellViews.length; i++) {
+                View view = cellViews[i];
+                if (view != null) {
+                    int x = table.getColumnX(i);
+                    view.layout(x, 0, x + view.getMeasuredWidth(), view.getMeasuredHeight());
+                }
+            }
+            invalidate();
+        }
+
+        @Override
+        protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+            if (child.getLeft() < table.frozenWidth && indexOfColumn(child) >= table.frozenColumnCount) {
+                canvas.save();
+                canvas.clipRect(table.frozenWidth, 0, getWidth(), getHeight());
+                boolean result = super.drawChild(canvas, child, drawingTime);
+                canvas.restore();
+                return result;
+            }
+            return super.drawChild(canvas, child, drawingTime);
+        }
+
+        private int indexOfColumn(View child) {
+            for (int i = 0; i < cellViews.length; i++) {
+                if (cellViews[i] == child)
+                    return i;
+            }
+            return -1;
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            if (item != null && !isStale())
+                table.drawCells(canvas, getWidth(), getHeight(), this);
+        }
+
+        // rows made for previous columns stay attached until the table is laid out again
+        private boolean isStale() {
+            return cellViews.length != table.columnWidths.length;
+        }
+
+        @Override
+        public void drawCell(Canvas canvas, int column, int x, int height) {
+            if (column >= item.size())
+                return;
+            CellRenderer renderer = table.columnRenderers[column];
+            if (renderer instanceof TextCellRenderer) {
+                Layout layout = getLayout(column);
+                if (layout == null)
+                    return;
+                canvas.save();
+                canvas.translate(x + table.cellPadding, (height - layout.getHeight()) / 2.0f);
+                layout.draw(canvas);
+                canvas.restore();
+            } else if (renderer instanceof CanvasCellRenderer) {
+                cellRect.set(x, 0, x + table.columnWidths[column], height);
+                ((CanvasCellRenderer) renderer).draw(getContext(), canvas, cellRect, item.get(column), table.columnFormats[column]);
+            }
+        }
+
+        private Layout getLayout(int column) {
+            if (!layoutsValid[column]) {
+                layouts[column] = table.makeLayout(texts[column], table.cellPaint, table.columnWidths[column] - table.cellPadding * 2, table.columnAlignments[column], layouts[column]);
+                layoutsValid[column] = true;
+            }
+            return layouts[column];
+        }
     }
 
     public interface CellRenderer<T, V extends View> {
@@ -115,7 +577,26 @@ public class TableView extends RecyclerView {
         void bindView(V view, T value, Format format);
     }
 
-    public static class StringRenderer implements CellRenderer<String, TextView> {
+    /**
+     * Cell renderer of text cells. In {@link RowMode#Canvas} mode the text is drawn directly
+     * instead of using a view.
+     */
+    public interface TextCellRenderer<T> {
+        CharSequence getText(T value, Format format);
+
+        default Layout.Alignment getAlignment() {
+            return Layout.Alignment.ALIGN_NORMAL;
+        }
+    }
+
+    /**
+     * Cell renderer drawing cells directly in {@link RowMode#Canvas} mode.
+     */
+    public interface CanvasCellRenderer<T> {
+        void draw(Context context, Canvas canvas, Rect bounds, T value, Format format);
+    }
+
+    public static class StringRenderer implements CellRenderer<String, TextView>, TextCellRenderer<String> {
 
         @Override
         public TextView getView(Context context) {
@@ -131,11 +612,16 @@ public class TableView extends RecyclerView {
 
         @Override
         public void bindView(TextView view, String value, Format format) {
-            view.setText(value);
+            view.setText(getText(value, format));
+        }
+
+        @Override
+        public CharSequence getText(String value, Format format) {
+            return value;
         }
     }
 
-    public static class IntegerRenderer implements CellRenderer<Integer, TextView> {
+    public static class IntegerRenderer implements CellRenderer<Integer, TextView>, TextCellRenderer<Integer> {
 
         @Override
         public TextView getView(Context context) {
@@ -151,15 +637,23 @@ public class TableView extends RecyclerView {
 
         @Override
         public void bindView(TextView view, Integer value, Format format) {
-            if (format != null) {
-                view.setText(format.format(value));
-            } else {
-                view.setText(value);
-            }
+            view.setText(getText(value, format));
+        }
+
+        @Override
+        public CharSequence getText(Integer value, Format format) {
+            if (value == null)
+                return null;
+            return format != null ? format.format(value) : String.valueOf(value);
+        }
+
+        @Override
+        public Layout.Alignment getAlignment() {
+            return Layout.Alignment.ALIGN_OPPOSITE;
         }
     }
 
-    public static class FloatRenderer implements CellRenderer<Float, TextView> {
+    public static class FloatRenderer implements CellRenderer<Float, TextView>, TextCellRenderer<Float> {
 
         @Override
         public TextView getView(Context context) {
@@ -175,15 +669,24 @@ public class TableView extends RecyclerView {
 
         @Override
         public void bindView(TextView view, Float value, Format format) {
-            if (format != null) {
-                view.setText(format.format(value));
-            } else {
-                view.setText(String.valueOf(value));
-            }
+            view.setText(getText(value, format));
+        }
+
+        @Override
+        public CharSequence getText(Float value, Format format) {
+            if (value == null)
+                return null;
+            return format != null ? format.format(value) : String.valueOf(value);
+        }
+
+        @Override
+        public Layout.Alignment getAlignment() {
+            return Layout.Alignment.ALIGN_OPPOSITE;
         }
     }
 
-    public static class BooleanRenderer implements CellRenderer<Boolean, FrameLayout> {
+    public static class BooleanRenderer implements CellRenderer<Boolean, FrameLayout>, CanvasCellRenderer<Boolean> {
+        private Drawable checked, unchecked;
 
         @Override
         public FrameLayout getView(Context context) {
@@ -201,5 +704,21 @@ public class TableView extends RecyclerView {
         public void bindView(FrameLayout view, Boolean value, Format format) {
             ((CheckBox) view.getChildAt(0)).setChecked(value);
         }
+
+        @Override
+        public void draw(Context context, Canvas canvas, Rect bounds, Boolean value, Format format) {
+            if (checked == null) {
+                int color = Carbon.getThemeColor(context, android.R.attr.textColorSecondary);
+                checked = AppCompatResources.getDrawable(context, R.drawable.carbon_checkbox_checked).mutate();
+                checked.setColorFilter(color, PorterDuff.Mode.SRC_IN);
+                unchecked = AppCompatResources.getDrawable(context, R.drawable.carbon_checkbox_unchecked).mutate();
+                unchecked.setColorFilter(color, PorterDuff.Mode.SRC_IN);
+            }
+            Drawable drawable = value != null && value ? checked : unchecked;
+            int width = drawable.getIntrinsicWidth();
+            int height = drawable.getIntrinsicHeight();
+            drawable.setBounds(bounds.centerX() - width / 2, bounds.centerY() - height / 2, bounds.centerX() + width / 2, bounds.centerY() + height / 2);
+            drawable.draw(canvas);
+        }
     }
 }
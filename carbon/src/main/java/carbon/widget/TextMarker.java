@@ -6,6 +6,7 @@ import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.graphics.Rect;
+import android.os.Build;
 import android.text.Layout;
 import android.text.StaticLayout;
 import android.text.TextPaint;
@@ -79,19 +80,27 @@ public class TextMarker extends View {
             if (layout == null)
                 layout = new StaticLayout(text, textPaint, getMeasuredWidth(), Layout.Alignment.ALIGN_NORMAL, 1, 0, true);
 
-            String firstLine = text.subSequence(0, layout.getLineEnd(0)).toString();
-            textPaint.getTextBounds(firstLine, 0, firstLine.length(), rect);
+            getTextBounds(0, layout.getLineEnd(0), rect);
             baseline = Math.abs(rect.top);
             rect.top = -layout.getLineAscent(0) + rect.top;
 
-            String lastLine = text.subSequence(layout.getLineStart(layout.getLineCount() - 1), layout.getLineEnd(layout.getLineCount() - 1)).toString();
-            textPaint.getTextBounds(lastLine, 0, lastLine.length(), rect2);
+            int lastLine = layout.getLineCount() - 1;
+            getTextBounds(layout.getLineStart(lastLine), layout.getLineEnd(lastLine), rect2);
             rect.bottom = layout.getHeight() - layout.getLineDescent(layout.getLineCount() - 1) + rect2.bottom;
 
             setMeasuredDimension(getMeasuredWidth(), rect.height() + getPaddingTop() + getPaddingBottom());
         }
     }
 
+    private void getTextBounds(int start, int end, Rect bounds) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            textPaint.getTextBounds(text, start, end, bounds);
+        } else {
+            String line = text.subSequence(start, end).toString();
+            textPaint.getTextBounds(line, 0, line.length(), bounds);
+        }
+    }
+
     @Override
     public int getBaseline() {
         return baseline + getPaddingTop();
@@ -8,9 +8,7 @@ import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
-import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Outline;
 import android.graphics.Paint;
@@ -21,6 +19,7 @@ import android.graphics.PorterDuffColorFilter;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
+import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
@@ -44,7 +43,9 @@ import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.graphics.drawable.DrawableCompat;
+import androidx.core.text.PrecomputedTextCompat;
 import androidx.core.view.ViewCompat;
+import androidx.core.widget.TextViewCompat;
 
 import com.google.android.material.shape.CutCornerTreatment;
 import com.google.android.material.shape.MaterialShapeDrawable;
@@ -56,6 +57,8 @@ import org.jetbrains.annotations.NotNull;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import carbon.Carbon;
 import carbon.R;
@@ -65,13 +68,21 @@ import carbon.animation.AnimatedView;
 import carbon.animation.StateAnimator;
 import carbon.drawable.ripple.RippleDrawable;
 import carbon.drawable.ripple.RippleView;
+import carbon.internal.EditModeLayer;
+import carbon.internal.ElevationDrawingOrder;
+import carbon.internal.ParentInvalidator;
 import carbon.internal.RevealAnimator;
+import carbon.internal.ShadowCache;
+import carbon.internal.TextFuture;
+import carbon.internal.TextSizeFitter;
 import carbon.view.AllCapsTransformationMethod;
 import carbon.view.AutoSizeTextView;
 import carbon.view.MarginView;
 import carbon.view.MaxSizeView;
 import carbon.view.RevealView;
 import carbon.view.ShadowView;
+import carbon.view.ShapeClipMode;
+import carbon.view.ShapeClipModeView;
 import carbon.view.ShapeModelView;
 import carbon.view.StateAnimatorView;
 import carbon.view.StrokeView;
@@ -122,6 +133,7 @@ public class TextView extends android.widget.TextView
         StateAnimatorView,
         AnimatedView,
         ShapeModelView,
+        ShapeClipModeView,
         TintedView,
         StrokeView,
         MaxSizeView,
@@ -203,7 +215,8 @@ public class TextView extends android.widget.TextView
             R.styleable.TextView_carbon_cornerCutTopEnd,
             R.styleable.TextView_carbon_cornerCutBottomStart,
             R.styleable.TextView_carbon_cornerCutBottomEnd,
-            R.styleable.TextView_carbon_cornerCut
+            R.styleable.TextView_carbon_cornerCut,
+            R.styleable.TextView_carbon_shapeClipMode
     };
     private static int[] maxSizeIds = new int[]{
             R.styleable.TextView_carbon_maxWidth,
@@ -331,6 +344,7 @@ public class TextView extends android.widget.TextView
     }
 
     RevealAnimator revealAnimator;
+    private EditModeLayer editModeLayer;
 
     public Point getLocationOnScreen() {
         int[] outLocation = new int[2];
@@ -428,6 +442,18 @@ public class TextView extends android.widget.TextView
             postInvalidate();
     }
 
+    @NotNull
+    @Override
+    public ShapeClipMode getShapeClipMode() {
+        return shapeClipMode;
+    }
+
+    @Override
+    public void setShapeClipMode(@NotNull ShapeClipMode shapeClipMode) {
+        this.shapeClipMode = shapeClipMode;
+        postInvalidate();
+    }
+
     @Override
     public void setOverScrollMode(int overScrollMode) {
         super.setOverScrollMode(overScrollMode);
@@ -456,10 +482,12 @@ public class TextView extends android.widget.TextView
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        consumeTextFuture();
         onMeasure2(widthMeasureSpec, heightMeasureSpec);
 
-        if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.AT_MOST && getMeasuredWidth() == MeasureSpec.getSize(widthMeasureSpec) && getEllipsize() == null) {
-            StaticLayout layout = new StaticLayout(getText(), getPaint(), getMeasuredWidth(), Layout.Alignment.ALIGN_NORMAL, spacingMult, spacingAdd, true);
+        // the layout made by super.onMeasure() already wraps the text at the measured width
+        Layout layout = getLayout();
+        if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.AT_MOST && getMeasuredWidth() == MeasureSpec.getSize(widthMeasureSpec) && getEllipsize() == null && layout != null) {
             int width = 0;
             for (int i = 0; i < layout.getLineCount(); i++) {
                 width = (int) Math.max(width, layout.getLineMax(i));
@@ -527,48 +555,46 @@ public class TextView extends android.widget.TextView
 
         if (isInEditMode()) {
             if ((r || c) && getWidth() > 0 && getHeight() > 0) {
-                Bitmap layer = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-                Canvas layerCanvas = new Canvas(layer);
-                drawInternal(layerCanvas);
-
-                Bitmap mask = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
-                Canvas maskCanvas = new Canvas(mask);
-                Paint maskPaint = new Paint(0xffffffff);
-                maskCanvas.drawPath(cornersMask, maskPaint);
-
-                for (int x = 0; x < getWidth(); x++) {
-                    for (int y = 0; y < getHeight(); y++) {
-                        int maskPixel = mask.getPixel(x, y);
-                        layer.setPixel(x, y, Color.alpha(maskPixel) > 0 ? layer.getPixel(x, y) : 0);
-                    }
-                }
-                canvas.drawBitmap(layer, 0, 0, paint);
+                if (editModeLayer == null)
+                    editModeLayer = new EditModeLayer();
+                drawInternal(editModeLayer.begin(getWidth(), getHeight()));
+                editModeLayer.drawMasked(canvas, cornersMask);
             } else {
                 drawInternal(canvas);
             }
         } else if (getWidth() > 0 && getHeight() > 0 && (((r || c) && !Carbon.IS_LOLLIPOP_OR_HIGHER) || !shapeModel.isRoundRect(boundsRect))) {
-            int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
-
-            if (r) {
-                int saveCount2 = canvas.save();
-                canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+            if (Carbon.shouldClipPath(shapeClipMode, canvas, shapeModel, boundsRect, r)) {
+                int saveCount = canvas.save();
+                if (c)
+                    Carbon.clipPath(canvas, cornersMask);
+                if (r)
+                    Carbon.clipPath(canvas, revealAnimator.mask);
                 drawInternal(canvas);
-                canvas.restoreToCount(saveCount2);
+                canvas.restoreToCount(saveCount);
             } else {
-                drawInternal(canvas);
-            }
+                int saveCount = canvas.saveLayer(0, 0, getWidth(), getHeight(), null, Canvas.ALL_SAVE_FLAG);
+
+                if (r) {
+                    int saveCount2 = canvas.save();
+                    canvas.clipRect(revealAnimator.x - revealAnimator.radius, revealAnimator.y - revealAnimator.radius, revealAnimator.x + revealAnimator.radius, revealAnimator.y + revealAnimator.radius);
+                    drawInternal(canvas);
+                    canvas.restoreToCount(saveCount2);
+                } else {
+                    drawInternal(canvas);
+                }
 
-            paint.setXfermode(Carbon.CLEAR_MODE);
-            if (c) {
-                cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
-                canvas.drawPath(cornersMask, paint);
-            }
-            if (r)
-                canvas.drawPath(revealAnimator.mask, paint);
-            paint.setXfermode(null);    // TODO check if this is needed
+                paint.setXfermode(Carbon.CLEAR_MODE);
+                if (c) {
+                    cornersMask.setFillType(Path.FillType.INVERSE_WINDING);
+                    canvas.drawPath(cornersMask, paint);
+                }
+                if (r)
+                    canvas.drawPath(revealAnimator.mask, paint);
+                paint.setXfermode(null);    // TODO check if this is needed
 
-            canvas.restoreToCount(saveCount);
-            paint.setXfermode(null);
+                canvas.restoreToCount(saveCount);
+                paint.setXfermode(null);
+            }
         } else {
             drawInternal(canvas);
         }
@@ -649,11 +675,11 @@ public class TextView extends android.widget.TextView
         if (getParent() == null || !(getParent() instanceof View))
             return;
 
-        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless)
-            ((View) getParent()).invalidate();
-
-        if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect))
-            ((View) getParent()).invalidate();
+        if (rippleDrawable != null && rippleDrawable.getStyle() == RippleDrawable.Style.Borderless) {
+            ParentInvalidator.invalidateParent(this);
+        } else if (elevation > 0 || !Carbon.isShapeRect(shapeModel, boundsRect)) {
+            ParentInvalidator.invalidate(this, elevation + translationZ);
+        }
     }
 
     @Override
@@ -717,6 +743,7 @@ public class TextView extends android.widget.TextView
     private float elevation = 0;
     private float translationZ = 0;
     private ShapeAppearanceModel shapeModel = new ShapeAppearanceModel();
+    private ShapeClipMode shapeClipMode = ShapeClipMode.AUTO;
     private MaterialShapeDrawable shadowDrawable = new MaterialShapeDrawable(shapeModel);
     private ColorStateList ambientShadowColor, spotShadowColor;
 
@@ -741,6 +768,8 @@ public class TextView extends android.widget.TextView
         } else if (elevation != this.elevation && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        if (elevation != this.elevation)
+            ElevationDrawingOrder.onElevationChanged(this);
         this.elevation = elevation;
     }
 
@@ -763,6 +792,7 @@ public class TextView extends android.widget.TextView
         } else if (translationZ != this.translationZ && getParent() != null) {
             ((View) getParent()).postInvalidate();
         }
+        ElevationDrawingOrder.onElevationChanged(this);
         this.translationZ = translationZ;
     }
 
@@ -788,8 +818,12 @@ public class TextView extends android.widget.TextView
         boolean maskShadow = getBackground() != null && alpha != 1;
         boolean r = revealAnimator != null && revealAnimator.isRunning();
 
-        if (alpha != 255) {
-            paint.setAlpha((int) (127 * alpha));
+        int shadowColor = spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000;
+        ShadowCache.Shadow shadow = ShadowCache.get(shadowDrawable, spotShadowColor, shadowColor, z, getWidth(), getHeight());
+        boolean layer = maskShadow || r || shadow == null;
+
+        paint.setAlpha((int) (127 * alpha));
+        if (layer) {
             saveCount = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), paint, Canvas.ALL_SAVE_FLAG);
         } else {
             saveCount = canvas.save();
@@ -803,13 +837,18 @@ public class TextView extends android.widget.TextView
                     getLeft() + revealAnimator.x + revealAnimator.radius, getTop() + revealAnimator.y + revealAnimator.radius);
         }
 
-        shadowDrawable.setFillColor(spotShadowColor);
-        shadowDrawable.setShadowColor(spotShadowColor != null ? spotShadowColor.getColorForState(getDrawableState(), spotShadowColor.getDefaultColor()) : 0xff000000);
-        shadowDrawable.setAlpha(0x44);
-        shadowDrawable.setElevation(z);
-        shadowDrawable.setShadowVerticalOffset(0);
-        shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
-        shadowDrawable.draw(canvas);
+        if (shadow != null) {
+            // without a layer the bitmap is drawn with the shadow's alpha
+            canvas.drawBitmap(shadow.bitmap, getLeft() - shadow.padding, (int) (getTop() + z / 4) - shadow.padding, layer ? null : paint);
+        } else {
+            shadowDrawable.setFillColor(spotShadowColor);
+            shadowDrawable.setShadowColor(shadowColor);
+            shadowDrawable.setAlpha(0x44);
+            shadowDrawable.setElevation(z);
+            shadowDrawable.setShadowVerticalOffset(0);
+            shadowDrawable.setBounds(getLeft(), (int) (getTop() + z / 4), getRight(), (int) (getBottom() + z / 4));
+            shadowDrawable.draw(canvas);
+        }
 
         canvas.translate(this.getLeft(), this.getTop());
         canvas.concat(matrix);
@@ -1309,6 +1348,60 @@ public class TextView extends android.widget.TextView
     }
 
 
+    // -------------------------------
+    // precomputed text
+    // -------------------------------
+
+    private Executor textExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+    private Future<PrecomputedTextCompat> textFuture;
+
+    public Executor getTextExecutor() {
+        return textExecutor;
+    }
+
+    /**
+     * Sets the executor used to precompute text set using {@link #setTextAsync(CharSequence)}.
+     */
+    public void setTextExecutor(@NonNull Executor textExecutor) {
+        this.textExecutor = textExecutor;
+    }
+
+    /**
+     * Measures and lays out the text on a background thread using this view's current text
+     * metrics. The text is set when it's ready or when the view is measured, whichever comes
+     * first.
+     */
+    public void setTextAsync(@NonNull CharSequence text) {
+        TextFuture future = new TextFuture(text, TextViewCompat.getTextMetricsParams(this), f -> {
+            if (textFuture == f)
+                consumeTextFuture();
+        });
+        setTextFuture(future);
+        textExecutor.execute(future);
+    }
+
+    /**
+     * Sets text precomputed by the given future. The future should use this view's
+     * {@link TextViewCompat#getTextMetricsParams(android.widget.TextView) text metrics}. The text
+     * is set at the latest when the view is measured, waiting for the future if needed.
+     */
+    public void setTextFuture(@Nullable Future<PrecomputedTextCompat> future) {
+        if (textFuture != null)
+            textFuture.cancel(false);
+        textFuture = future;
+        if (future != null)
+            requestLayout();
+    }
+
+    private void consumeTextFuture() {
+        if (textFuture == null)
+            return;
+        Future<PrecomputedTextCompat> future = textFuture;
+        textFuture = null;
+        TextFuture.apply(this, future);
+    }
+
+
     // -------------------------------
     // auto size
     // -------------------------------
@@ -1319,6 +1412,7 @@ public class TextView extends android.widget.TextView
 
     private RectF textRect = new RectF();
     private RectF availableSpaceRect = new RectF();
+    private TextSizeFitter textSizeFitter = new TextSizeFitter();
     private float spacingMult = 1.0f;
     private float spacingAdd = 0.0f;
     private int maxLines = -1;
@@ -1335,6 +1429,10 @@ public class TextView extends android.widget.TextView
 
     @Override
     public void setText(final CharSequence text, BufferType type) {
+        if (textFuture != null) {
+            textFuture.cancel(false);
+            textFuture = null;
+        }
         super.setText(text, type);
         fixSpannableEllipsis();
         adjustTextSize();
@@ -1449,33 +1547,9 @@ public class TextView extends android.widget.TextView
             initAutoSize();
         availableSpaceRect.right = getMeasuredWidth() - getCompoundPaddingLeft() - getCompoundPaddingRight();
         availableSpaceRect.bottom = getMeasuredHeight() - getCompoundPaddingBottom() - getCompoundPaddingTop();
-        super.setTextSize(TypedValue.COMPLEX_UNIT_PX, binarySearch(availableSpaceRect));
-    }
-
-    private float binarySearch(RectF availableSpace) {
-        int lastBest = 0;
-        int lo = 0;
-        int hi = autoSizeStepPresets.length - 1;
-        int mid;
-//        for (int i = 0; i < autoSizeStepPresets.length; i++) {
-//            if (testSize(autoSizeStepPresets[i], availableSpace)) {
-//                lastBest = i;
-//            } else {
-//                break;
-//            }
-//        }
-        while (lo <= hi) {
-            mid = (lo + hi) / 2;
-            boolean fits = testSize(autoSizeStepPresets[mid], availableSpace);
-            if (fits) {
-                lastBest = mid;
-                lo = mid + 1;
-            } else {
-                hi = mid - 1;
-            }
-        }
-        return autoSizeStepPresets[lastBest];
-
+        float size = textSizeFitter.fit(getText(), getTypeface(), (int) availableSpaceRect.right, (int) availableSpaceRect.bottom, maxLines, spacingMult, spacingAdd, autoSizeStepPresets);
+        if (size != getTextSize())
+            super.setTextSize(TypedValue.COMPLEX_UNIT_PX, size);
     }
 
     public boolean testSize(float suggestedSize, RectF availableSpace) {
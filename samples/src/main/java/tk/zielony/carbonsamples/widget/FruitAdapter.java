@@ -41,9 +41,9 @@ public class FruitAdapter extends ListAdapter<FruitAdapter.ViewHolder, String> {
     public void onBindViewHolder(@NotNull final ViewHolder holder, final int position) {
         super.onBindViewHolder(holder, position);
         holder.tv.setText(getItem(position));
-        holder.checkBox.setChecked(getSelectedIndices().contains(position));
+        holder.checkBox.setChecked(isSelected(position));
         holder.reorder.setOnTouchListener(onTouchListener);
-        holder.itemView.setSelected(getSelectedIndices().contains(position));
+        holder.itemView.setSelected(isSelected(position));
     }
 
     public class ViewHolder extends RecyclerView.ViewHolder {